@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+/**
+ * Logging helpers of the benchmarks.
+ *
+ * @author Idan Rozenfeld
+ */
+public final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    public static void setLevel(Class<?> clazz, LogLevel level) {
+        LoggingSystem.get(BenchmarkLogging.class.getClassLoader()).setLogLevel(clazz.getName(), level);
+    }
+
+    /**
+     * Formats every event, as a real appender would, without writing it anywhere.
+     */
+    public static class FormattingAppender extends AppenderBase<ILoggingEvent> {
+
+        private int length;
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            length += event.getFormattedMessage().length();
+        }
+    }
+}
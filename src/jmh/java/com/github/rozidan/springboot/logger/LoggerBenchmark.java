@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Measures the {@link Logger#log} dispatch, by class, by name and by a resolved slf4j logger.
+ *
+ * @author Idan Rozenfeld
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerBenchmark {
+
+    private static final String NAME = "com.github.rozidan.springboot.logger.LoggerBenchmark";
+
+    @Param({"INFO", "WARN"})
+    private LogLevel level;
+
+    private Logger logger;
+    private org.slf4j.Logger slf4j;
+
+    @Setup
+    public void setup() {
+        BenchmarkLogging.setLevel(LoggerBenchmark.class, level);
+        logger = new Logger();
+        slf4j = LoggerFactory.getLogger(LoggerBenchmark.class);
+    }
+
+    @Benchmark
+    public void logByClass() {
+        logger.log(LogLevel.INFO, LoggerBenchmark.class, "#method({}): {} in {}", "args", "result", "PT0S");
+    }
+
+    @Benchmark
+    public void logByName() {
+        logger.log(LogLevel.INFO, NAME, "#method({}): {} in {}", "args", "result", "PT0S");
+    }
+
+    @Benchmark
+    public void logByLogger() {
+        logger.log(slf4j, LogLevel.INFO, "#method({}): {} in {}", "args", "result", "PT0S");
+    }
+}
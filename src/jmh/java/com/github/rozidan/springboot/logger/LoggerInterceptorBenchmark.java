@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Measures a {@link LoggerInterceptor#logMethod} invocation through a Spring AOP proxy.
+ *
+ * Run with {@code ./gradlew jmh}, allocation rates are reported by the gc profiler.
+ *
+ * @author Idan Rozenfeld
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerInterceptorBenchmark {
+
+    @Param({"INFO", "WARN"})
+    private LogLevel level;
+
+    private LoggerInterceptor interceptor;
+    private Service target;
+    private Service proxy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkLogging.setLevel(Service.class, level);
+        interceptor = new LoggerInterceptor(new Logger());
+        interceptor.construct();
+        target = new Service();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(interceptor);
+        proxy = factory.getProxy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        interceptor.destroy();
+    }
+
+    @Benchmark
+    public int baseline() {
+        return target.compute("str", 10);
+    }
+
+    @Benchmark
+    public int loggable() {
+        return proxy.compute("str", 10);
+    }
+
+    @Benchmark
+    public int loggableWarnOver() {
+        return proxy.computeWarnOver("str", 10);
+    }
+
+    public static class Service {
+
+        @Loggable
+        public int compute(String str, int num) {
+            return str.length() + num;
+        }
+
+        @Loggable(warnOver = 1, warnUnit = TimeUnit.MINUTES)
+        public int computeWarnOver(String str, int num) {
+            return str.length() + num;
+        }
+    }
+}
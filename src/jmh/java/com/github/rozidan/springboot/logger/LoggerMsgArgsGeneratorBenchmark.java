@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the rendering of typical method arguments by {@link LoggerMsgArgsGenerator}.
+ *
+ * @author Idan Rozenfeld
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerMsgArgsGeneratorBenchmark {
+
+    private LoggerMsgArgsGenerator lmag;
+    private LoggerPlan plan;
+
+    private Object[] strings;
+    private Object[] primitiveArrays;
+    private Object[] nestedArrays;
+    private Object result;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        lmag = new LoggerMsgArgsGenerator();
+        plan = new LoggerPlan(Service.class.getMethod("call", Object[].class),
+                Service.class.getMethod("call", Object[].class).getAnnotation(Loggable.class),
+                new LoggerProperties());
+        strings = new Object[]{"first", "second", "third"};
+        primitiveArrays = new Object[]{new int[]{1, 2, 3, 4, 5, 6, 7, 8}, new double[]{1.5, 2.5, 3.5},
+                new boolean[]{true, false}};
+        nestedArrays = new Object[]{new Object[]{"a", 1, new Object[]{"b", 2L, null}}, new String[]{"c", "d"}};
+        result = 42;
+    }
+
+    @Benchmark
+    public void strings(Blackhole bh) {
+        render(bh, lmag.after(plan, strings, result, 1000L));
+    }
+
+    @Benchmark
+    public void primitiveArrays(Blackhole bh) {
+        render(bh, lmag.after(plan, primitiveArrays, result, 1000L));
+    }
+
+    @Benchmark
+    public void nestedArrays(Blackhole bh) {
+        render(bh, lmag.after(plan, nestedArrays, result, 1000L));
+    }
+
+    private static void render(Blackhole bh, Object[] args) {
+        for (Object arg : args) {
+            bh.consume(arg.toString());
+        }
+    }
+
+    public static class Service {
+
+        @Loggable
+        public Object call(Object... args) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Measures the refresh of a context holding many beans, without the logger, with its aspect and with
+ * its index, see {@link LoggerProperties.Index}.
+ *
+ * Every plain bean has a class of its own, generated at setup, so the pointcuts are matched against the
+ * methods of distinct classes as in a real application.
+ *
+ * @author Idan Rozenfeld
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoggerStartupBenchmark {
+
+    private static final int LOGGABLE_RATIO = 100;
+
+    @Param({"NONE", "ASPECT", "INDEX"})
+    private Proxying proxying;
+
+    @Param({"2000"})
+    private int beans;
+
+    private Class<?>[] types;
+    private AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GeneratingClassLoader classLoader = new GeneratingClassLoader();
+        types = new Class<?>[beans];
+        for (int i = 0; i < beans; i++) {
+            types[i] = classLoader.generate(LoggerStartupBenchmark.class.getName() + "$PlainService" + i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Collections.singletonMap("logger.index.enabled", proxying == Proxying.INDEX)));
+        context.register(proxying == Proxying.NONE ? ProxyApplication.class : LoggerApplication.class);
+        for (int i = 0; i < beans; i++) {
+            if (i % LOGGABLE_RATIO == 0) {
+                context.registerBeanDefinition("loggableService" + i, new RootBeanDefinition(LoggableService.class));
+            } else {
+                context.registerBeanDefinition("plainService" + i, new RootBeanDefinition(types[i]));
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public AnnotationConfigApplicationContext refresh() {
+        context.refresh();
+        return context;
+    }
+
+    public enum Proxying {
+        NONE, ASPECT, INDEX
+    }
+
+    /**
+     * Defines plain classes, each with public methods of its own.
+     */
+    private static final class GeneratingClassLoader extends ClassLoader {
+
+        private static final int METHODS = 10;
+
+        GeneratingClassLoader() {
+            super(LoggerStartupBenchmark.class.getClassLoader());
+        }
+
+        Class<?> generate(String name) {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            String internalName = name.replace('.', '/');
+            writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+            MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            init.visitCode();
+            init.visitVarInsn(Opcodes.ALOAD, 0);
+            init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            init.visitInsn(Opcodes.RETURN);
+            init.visitMaxs(0, 0);
+            init.visitEnd();
+            for (int i = 0; i < METHODS; i++) {
+                MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "find" + i,
+                        "(Ljava/lang/String;I)Ljava/lang/Object;", null, null);
+                method.visitCode();
+                method.visitVarInsn(Opcodes.ALOAD, 1);
+                method.visitInsn(Opcodes.ARETURN);
+                method.visitMaxs(0, 0);
+                method.visitEnd();
+            }
+            writer.visitEnd();
+            byte[] bytes = writer.toByteArray();
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    public static class LoggableService {
+
+        @Loggable
+        public String find(String id) {
+            return id;
+        }
+
+        public void save(String id, Object value) {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    public static class ProxyApplication {
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class LoggerApplication {
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.Aspects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Compares a {@link Loggable} invocation through a Spring AOP proxy with a woven one, see
+ * META-INF/aop.xml of the jmh source set.
+ *
+ * @author Idan Rozenfeld
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerWeavingBenchmark {
+
+    @Param({"INFO", "WARN"})
+    private LogLevel level;
+
+    private LoggerInterceptor interceptor;
+    private LoggerAspect.Binding binding;
+    private ProxiedService proxy;
+    private WovenService woven;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkLogging.setLevel(ProxiedService.class, level);
+        BenchmarkLogging.setLevel(WovenService.class, level);
+        interceptor = new LoggerInterceptor(new Logger());
+        interceptor.construct();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ProxiedService());
+        factory.addAspect(interceptor);
+        proxy = factory.getProxy();
+
+        binding = Aspects.aspectOf(LoggerAspect.class).bind(new LoggerInterceptor(new Logger()));
+        woven = new WovenService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        interceptor.destroy();
+        binding.close();
+    }
+
+    @Benchmark
+    public int proxy() {
+        return proxy.compute("str", 10);
+    }
+
+    @Benchmark
+    public int woven() {
+        return woven.compute("str", 10);
+    }
+
+    public static class ProxiedService {
+
+        @Loggable
+        public int compute(String str, int num) {
+            return str.length() + num;
+        }
+    }
+
+    public static class WovenService {
+
+        @Loggable
+        public int compute(String str, int num) {
+            return str.length() + num;
+        }
+    }
+}
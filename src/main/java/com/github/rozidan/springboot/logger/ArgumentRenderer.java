@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import org.springframework.core.GenericTypeResolver;
+
+/**
+ * Renders arguments and results of a specific type instead of their {@code toString()}.
+ *
+ * Renderers are registered as Spring beans and are resolved once per runtime class, the renderer of the
+ * nearest superclass or interface is used. Strings and boxed primitives are always rendered as they are.
+ *
+ * <pre>
+ * &#64;Bean
+ * public ArgumentRenderer&lt;Order&gt; orderRenderer() {
+ *     return ArgumentRenderer.of(Order.class,
+ *             (order, context) -&gt; context.builder().append("Order#").append(order.getId()));
+ * }
+ * </pre>
+ *
+ * @param <T> the rendered type
+ * @author Idan Rozenfeld
+ * @see ArgumentRenderers
+ */
+@FunctionalInterface
+public interface ArgumentRenderer<T> {
+
+    /**
+     * Appends the given non null value into the builder of the context.
+     */
+    void render(T value, Context context);
+
+    /**
+     * The rendered type, resolved from the generic declaration of the implementation by default.
+     */
+    default Class<?> type() {
+        Class<?> type = GenericTypeResolver.resolveTypeArgument(getClass(), ArgumentRenderer.class);
+        if (type == null) {
+            throw new IllegalStateException("Unable to resolve the rendered type of " + getClass().getName()
+                    + ", use ArgumentRenderer.of() or override type()");
+        }
+        return type;
+    }
+
+    /**
+     * Creates a renderer of the given type, typically out of a lambda.
+     */
+    static <T> ArgumentRenderer<T> of(Class<? super T> type, ArgumentRenderer<T> renderer) {
+        return new ArgumentRenderer<T>() {
+            @Override
+            public void render(T value, Context context) {
+                renderer.render(value, context);
+            }
+
+            @Override
+            public Class<?> type() {
+                return type;
+            }
+        };
+    }
+
+    /**
+     * The rendering context of a single value.
+     */
+    interface Context {
+
+        /**
+         * The builder to append the value into.
+         */
+        StringBuilder builder();
+
+        /**
+         * Appends a nested value, through the registered renderers and within the limits of the method.
+         */
+        void append(Object value);
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Built-in {@link ArgumentRenderer}s, none of them is registered unless declared as a bean.
+ *
+ * @author Idan Rozenfeld
+ */
+public final class ArgumentRenderers {
+
+    private static final String TRUNCATED = "...";
+
+    private ArgumentRenderers() {
+    }
+
+    /**
+     * Renders the size of a collection and its first elements, e.g. {@code size=120 [a, b, ...]}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static ArgumentRenderer<Collection> collections(int head) {
+        return ArgumentRenderer.of(Collection.class, (value, context) -> {
+            StringBuilder bldr = context.builder().append("size=").append(value.size()).append(" [");
+            Iterator<?> it = value.iterator();
+            for (int i = 0; it.hasNext(); i++) {
+                if (i > 0) {
+                    bldr.append(", ");
+                }
+                if (i == head) {
+                    bldr.append(TRUNCATED);
+                    break;
+                }
+                context.append(it.next());
+            }
+            bldr.append(']');
+        });
+    }
+
+    /**
+     * Renders the size of a map and its first entries, e.g. {@code size=120 {a=1, b=2, ...}}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static ArgumentRenderer<Map> maps(int head) {
+        return ArgumentRenderer.of(Map.class, (value, context) -> {
+            StringBuilder bldr = context.builder().append("size=").append(value.size()).append(" {");
+            Iterator<?> it = value.entrySet().iterator();
+            for (int i = 0; it.hasNext(); i++) {
+                if (i > 0) {
+                    bldr.append(", ");
+                }
+                if (i == head) {
+                    bldr.append(TRUNCATED);
+                    break;
+                }
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) it.next();
+                context.append(entry.getKey());
+                bldr.append('=');
+                context.append(entry.getValue());
+            }
+            bldr.append('}');
+        });
+    }
+
+    /**
+     * Renders the content of an optional, e.g. {@code Optional['a']} or {@code Optional.empty}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static ArgumentRenderer<Optional> optionals() {
+        return ArgumentRenderer.of(Optional.class, (value, context) -> {
+            if (value.isPresent()) {
+                context.builder().append("Optional[");
+                context.append(value.get());
+                context.builder().append(']');
+            } else {
+                context.builder().append("Optional.empty");
+            }
+        });
+    }
+
+    /**
+     * Renders only the length of a byte array, e.g. {@code byte[1024]}.
+     */
+    public static ArgumentRenderer<byte[]> byteLength() {
+        return ArgumentRenderer.of(byte[].class,
+                (value, context) -> context.builder().append("byte[").append(value.length).append(']'));
+    }
+
+    /**
+     * Renders the length and the CRC32 checksum of a byte array, e.g. {@code byte[1024]#1a2b3c4d}.
+     */
+    public static ArgumentRenderer<byte[]> byteHash() {
+        return ArgumentRenderer.of(byte[].class, (value, context) -> {
+            CRC32 crc = new CRC32();
+            crc.update(value, 0, value.length);
+            context.builder().append("byte[").append(value.length).append("]#")
+                    .append(Long.toHexString(crc.getValue()));
+        });
+    }
+
+    /**
+     * Renders only the type of an input stream, which must not be consumed by the logger.
+     */
+    public static ArgumentRenderer<InputStream> inputStreams() {
+        return typeOnly(InputStream.class);
+    }
+
+    /**
+     * Renders only the type of a resource.
+     */
+    public static ArgumentRenderer<Resource> resources() {
+        return typeOnly(Resource.class);
+    }
+
+    /**
+     * Renders only the runtime type of the values of the given type.
+     */
+    public static <T> ArgumentRenderer<T> typeOnly(Class<T> type) {
+        return ArgumentRenderer.of(type,
+                (value, context) -> context.builder().append(ClassUtils.getShortName(value.getClass())));
+    }
+}
@@ -20,6 +20,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import org.springframework.context.annotation.AdviceMode;
 import org.springframework.context.annotation.Import;
 
 /**
@@ -33,6 +34,13 @@ import org.springframework.context.annotation.Import;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 @Documented
-@Import(LoggerConfiguration.class)
+@Import(LoggerConfigurationSelector.class)
 public @interface EnableLogger {
+
+    /**
+     * How {@link Loggable} methods are intercepted, by Spring AOP proxies or by AspectJ weaving.
+     * The ASPECTJ mode requires the AspectJ load-time weaver (or ajc) to weave the {@link LoggerAspect}.
+     * (default: PROXY)
+     */
+    AdviceMode mode() default AdviceMode.PROXY;
 }
\ No newline at end of file
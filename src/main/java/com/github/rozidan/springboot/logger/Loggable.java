@@ -59,6 +59,26 @@ public @interface Loggable {
      */
     boolean skipArgs() default false;
 
+    /**
+     * Arguments to mask, by parameter name or index, names may contain * wildcards and also mask the values
+     * of the matching map keys, not the fields of other objects. Indexes must be within the parameters.
+     * Parameters can also be annotated with {@link Masked}.
+     * (default: logger.render.mask-patterns)
+     */
+    String[] mask() default {};
+
+    /**
+     * SpEL condition on the arguments, by parameter name, for the invocation to be logged, e.g.
+     * {@code #order.amount > 10000}. Errors and warnOver breaches are always logged. (default: None)
+     */
+    String condition() default "";
+
+    /**
+     * SpEL condition on the result, as {@code #result}, and the arguments for the returned invocation to
+     * be logged, e.g. {@code #result.size() > 1000}. (default: None)
+     */
+    String resultCondition() default "";
+
     /**
      * List of exceptions that this logger should not log its stack trace. (default: None)
      */
@@ -73,4 +93,62 @@ public @interface Loggable {
      * Time unit for the warnOver. (default: MINUTES)
      */
     TimeUnit warnUnit() default TimeUnit.MINUTES;
+
+    /**
+     * Maximum characters of the rendered arguments or result, {@link Integer#MAX_VALUE} for no limit.
+     * (default: logger.render.max-chars)
+     */
+    int maxChars() default -1;
+
+    /**
+     * Maximum rendered elements of an array, collection or map, {@link Integer#MAX_VALUE} for no limit.
+     * (default: logger.render.max-elements)
+     */
+    int maxElements() default -1;
+
+    /**
+     * Maximum rendered nesting of arrays, collections and maps, {@link Integer#MAX_VALUE} for no limit.
+     * (default: logger.render.max-depth)
+     */
+    int maxDepth() default -1;
+
+    /**
+     * Fraction of the invocations to log, between 0 and 1, errors and warnOver breaches are always logged.
+     * (default: logger.sampling.rate)
+     */
+    double sampleRate() default -1;
+
+    /**
+     * Maximum logged invocations per second, {@link Integer#MAX_VALUE} for no limit, errors and warnOver
+     * breaches are always logged. (default: logger.sampling.max-per-second)
+     */
+    int maxPerSecond() default -1;
+
+    /**
+     * Should the invocations be summed up into a single line per interval, rather than logged one by one?
+     * errors and warnOver breaches are still logged one by one. {@link Rollup#DISABLED} logs the invocations
+     * one by one even when all the methods are rolled up. (default: logger.rollup.enabled)
+     */
+    Rollup rollup() default Rollup.INHERIT;
+
+    /**
+     * Whether the invocations of a method are rolled up.
+     */
+    enum Rollup {
+
+        /**
+         * As set by logger.rollup.enabled.
+         */
+        INHERIT,
+
+        /**
+         * Summed up into a single line per interval.
+         */
+        ENABLED,
+
+        /**
+         * Logged one by one.
+         */
+        DISABLED
+    }
 }
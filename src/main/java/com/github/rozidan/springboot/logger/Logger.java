@@ -44,7 +44,7 @@ public final class Logger {
         return isEnabled(LoggerFactory.getLogger(name), level);
     }
 
-    private void log(org.slf4j.Logger logger, LogLevel level, String message, Object... args) {
+    public void log(org.slf4j.Logger logger, LogLevel level, String message, Object... args) {
         Objects.requireNonNull(level, "LogLevel must not be null.");
         switch (level) {
             case TRACE:
@@ -68,7 +68,7 @@ public final class Logger {
         }
     }
 
-    private boolean isEnabled(org.slf4j.Logger logger, LogLevel level) {
+    public boolean isEnabled(org.slf4j.Logger logger, LogLevel level) {
         Objects.requireNonNull(level, "LogLevel must not be null.");
         switch (level) {
             case TRACE:
@@ -82,6 +82,8 @@ public final class Logger {
             case ERROR:
             case FATAL:
                 return logger.isErrorEnabled();
+            case OFF:
+                return false;
             default:
                 throw new IllegalArgumentException("LogLevel must be one of the enabled levels.");
         }
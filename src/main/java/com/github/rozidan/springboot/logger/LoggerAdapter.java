@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+/**
+ * Compile time generated arguments writers of the {@link Loggable} methods of a class.
+ *
+ * Implementations are generated by the {@link LoggerAdapterProcessor} as {@code <class name>$$LoggerAdapter},
+ * next to the class, and picked up by the interceptor when present. Each writer is chosen from the
+ * static parameter types of its method, so Strings and primitives are written without any type dispatch.
+ *
+ * @author Idan Rozenfeld
+ */
+public interface LoggerAdapter {
+
+    /**
+     * Suffix of the generated adapter class names.
+     */
+    String SUFFIX = "$$LoggerAdapter";
+
+    /**
+     * The arguments writer of the given method, null when it has none.
+     *
+     * @param signature the method name along with its canonical parameter type names,
+     *                  e.g. {@code find(java.lang.String,int)}
+     */
+    Args args(String signature);
+
+    /**
+     * Writes the arguments of a single method.
+     */
+    @FunctionalInterface
+    interface Args {
+        void write(Writer out, Object[] args);
+    }
+
+    /**
+     * Renders the arguments of a method one after the other, honoring the render limits.
+     */
+    interface Writer {
+
+        void arg(Object value);
+
+        void arg(String value);
+
+        void arg(int value);
+
+        void arg(long value);
+
+        void arg(short value);
+
+        void arg(byte value);
+
+        void arg(char value);
+
+        void arg(boolean value);
+
+        void arg(float value);
+
+        void arg(double value);
+    }
+}
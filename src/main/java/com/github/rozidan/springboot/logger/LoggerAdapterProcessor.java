@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a {@link LoggerAdapter} for every class declaring {@link Loggable} methods, along with the
+ * {@link LoggerIndex} of these classes.
+ *
+ * Optional, registered only in the processor classifier of this library, so it runs only when that jar is on
+ * the annotation processor path. Each method gets a writer chosen from its static parameter types: Strings and
+ * primitives are written directly and any other parameter goes through the runtime type dispatch.
+ *
+ * @author Idan Rozenfeld
+ */
+@SupportedAnnotationTypes("com.github.rozidan.springboot.logger.Loggable")
+public class LoggerAdapterProcessor extends AbstractProcessor {
+
+    private final Set<String> generated = new HashSet<>();
+    private final Set<String> indexed = new TreeSet<>();
+    private final List<Element> originating = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, Set<ExecutableElement>> types = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.METHOD) {
+                    add(types, (TypeElement) element.getEnclosingElement(), (ExecutableElement) element);
+                } else if (element.getKind().isClass()) {
+                    for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                        add(types, (TypeElement) element, method);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<TypeElement, Set<ExecutableElement>> entry : types.entrySet()) {
+            generate(entry.getKey(), entry.getValue());
+        }
+        if (roundEnv.processingOver() && !indexed.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                LoggerIndex.LOCATION, originating.toArray(new Element[0])).openWriter()) {
+            for (String type : indexed) {
+                writer.write(type);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to write " + LoggerIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private static void add(Map<TypeElement, Set<ExecutableElement>> types, TypeElement type,
+                            ExecutableElement method) {
+        NestingKind nesting = type.getNestingKind();
+        if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS
+                || method.getModifiers().contains(Modifier.ABSTRACT)) {
+            return;
+        }
+        types.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(method);
+    }
+
+    private void generate(TypeElement type, Set<ExecutableElement> methods) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (!generated.add(binaryName)) {
+            return;
+        }
+        indexed.add(binaryName);
+        originating.add(type);
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + LoggerAdapter.SUFFIX;
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Generated by ").append(LoggerAdapterProcessor.class.getName())
+                .append(", do not edit.\n */\n")
+                .append("public final class ").append(simpleName).append(" implements ")
+                .append(LoggerAdapter.class.getCanonicalName()).append(" {\n\n")
+                .append("    @Override\n")
+                .append("    public Args args(String signature) {\n")
+                .append("        switch (signature) {\n");
+        int index = 0;
+        for (ExecutableElement method : methods) {
+            source.append("            case \"").append(signature(method)).append("\":\n")
+                    .append("                return ").append(simpleName).append("::write").append(index++)
+                    .append(";\n");
+        }
+        source.append("            default:\n")
+                .append("                return null;\n")
+                .append("        }\n")
+                .append("    }\n");
+        index = 0;
+        for (ExecutableElement method : methods) {
+            source.append("\n    private static void write").append(index++).append("(Writer out, Object[] args) {\n");
+            List<? extends VariableElement> params = method.getParameters();
+            for (int i = 0; i < params.size(); i++) {
+                source.append("        out.arg(").append(cast(params.get(i).asType())).append("args[").append(i)
+                        .append("]);\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("}\n");
+
+        String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to generate the logger adapter " + name + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Primitives and Strings are cast to their own writer, anything else is dispatched at runtime.
+     */
+    private static String cast(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return "(" + type.getKind().name().toLowerCase() + ") ";
+        }
+        if (type.getKind() == TypeKind.DECLARED && qualifiedName(type).contentEquals("java.lang.String")) {
+            return "(String) ";
+        }
+        return "";
+    }
+
+    private String signature(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        List<? extends VariableElement> params = method.getParameters();
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            appendTypeName(signature, processingEnv.getTypeUtils().erasure(params.get(i).asType()));
+        }
+        return signature.append(')').toString();
+    }
+
+    private static Name qualifiedName(TypeMirror type) {
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName();
+    }
+
+    private static void appendTypeName(StringBuilder bldr, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            bldr.append(type.getKind().name().toLowerCase());
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            appendTypeName(bldr, ((ArrayType) type).getComponentType());
+            bldr.append("[]");
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            bldr.append(qualifiedName(type));
+        } else {
+            bldr.append(type);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.MethodClassKey;
+
+/**
+ * Spring AOP advisor applying the {@link LoggerInterceptor} to the types of the {@link LoggerIndex}.
+ *
+ * The AspectJ pointcuts of the interceptor are matched against every public method of every bean at
+ * startup, here a class that is not indexed is rejected by the class filter before any of its methods
+ * is matched. The methods of indexed classes are matched exactly as the interceptor pointcuts do.
+ *
+ * @author Idan Rozenfeld
+ * @see LoggerProperties.Index
+ */
+@SuppressWarnings("serial")
+final class LoggerAdvisor extends AbstractPointcutAdvisor {
+
+    private final transient LoggerInterceptor interceptor;
+    private final transient Pointcut pointcut;
+    private final transient Advice advice;
+    private final transient ConcurrentMap<MethodClassKey, Loggable> loggables = new ConcurrentHashMap<>();
+
+    /**
+     * @param index the indexed types, null to consider all the classes
+     */
+    LoggerAdvisor(LoggerInterceptor interceptor, LoggerIndex index) {
+        this.interceptor = interceptor;
+        LoggablePointcut loggablePointcut = new LoggablePointcut();
+        loggablePointcut.setClassFilter(index != null ? index::isCandidate : ClassFilter.TRUE);
+        this.pointcut = loggablePointcut;
+        this.advice = (MethodInterceptor) this::invoke;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return advice;
+    }
+
+    @PostConstruct
+    protected void construct() {
+        interceptor.construct();
+    }
+
+    @PreDestroy
+    protected void destroy() {
+        interceptor.destroy();
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        // an interface or a base class method is resolved against each target class on its own
+        Class<?> targetClass = AopUtils.getTargetClass(invocation.getThis());
+        MethodClassKey key = new MethodClassKey(invocation.getMethod(), targetClass);
+        Loggable loggable = loggables.get(key);
+        if (loggable == null) {
+            loggable = loggables.computeIfAbsent(key,
+                    k -> loggable(AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass)));
+        }
+        return interceptor.logMethod(
+                new MethodInvocationProceedingJoinPoint((ProxyMethodInvocation) invocation), loggable);
+    }
+
+    /**
+     * The method annotation, or its declaring class annotation.
+     */
+    private static Loggable loggable(Method method) {
+        Loggable loggable = method.getAnnotation(Loggable.class);
+        return loggable != null ? loggable : method.getDeclaringClass().getAnnotation(Loggable.class);
+    }
+
+    private static boolean isExcluded(Method method) {
+        switch (method.getName()) {
+            case "toString":
+                return method.getParameterCount() == 0 && method.getReturnType() == String.class;
+            case "hashCode":
+                return method.getParameterCount() == 0 && method.getReturnType() == int.class;
+            case "canEqual":
+            case "equals":
+                return method.getParameterCount() == 1 && method.getParameterTypes()[0] == Object.class
+                        && method.getReturnType() == boolean.class;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Public, {@link Loggable} methods, or public methods of {@link Loggable} classes.
+     */
+    private static final class LoggablePointcut extends StaticMethodMatcherPointcut {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            if (!Modifier.isPublic(specificMethod.getModifiers()) || isExcluded(specificMethod)) {
+                return false;
+            }
+            Loggable loggable = loggable(specificMethod);
+            if (loggable == null) {
+                return false;
+            }
+            // matched on startup, an invalid condition or mask fails the context rather than the first invocation
+            LoggerCondition.validate(specificMethod, loggable);
+            LoggerMask.validate(specificMethod, loggable);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,735 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Renders method arguments and results.
+ *
+ * Everything is appended into a reusable per thread {@link StringBuilder}, primitives and primitive
+ * arrays are appended without boxing. Rendering stops as soon as one of the {@link Limits} is reached.
+ * Values are rendered either as text or as JSON, values that have a registered {@link ArgumentRenderer}
+ * are rendered by it rather than by their type.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerArgsRenderer {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private static final String TRUNCATED = "...";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private final LoggerRenderers renderers;
+
+    LoggerArgsRenderer() {
+        this(null);
+    }
+
+    LoggerArgsRenderer(LoggerRenderers renderers) {
+        this.renderers = renderers;
+    }
+
+    /**
+     * Renders the given method arguments into a String, the arguments list itself is not limited by the
+     * max elements nor counted as a nesting level.
+     */
+    public String renderArgs(Object[] args, Limits limits) {
+        return render(args, limits, true);
+    }
+
+    /**
+     * Renders the given method arguments into a String through the compile time generated writer of the
+     * method, falls back to the runtime type dispatch when there is none.
+     */
+    public String renderArgs(LoggerAdapter.Args adapter, Object[] args, Limits limits) {
+        if (adapter == null || args == null) {
+            return renderArgs(args, limits);
+        }
+        return render(bldr -> appendArgs(bldr, adapter, args, limits));
+    }
+
+    /**
+     * Renders the given method result into a String.
+     */
+    public String render(Object result, Limits limits) {
+        return render(result, limits, false);
+    }
+
+    /**
+     * Appends the given method arguments into the builder.
+     */
+    public void appendArgs(StringBuilder bldr, Object[] args, Limits limits) {
+        append(bldr, args, limits, true);
+    }
+
+    /**
+     * Appends the given method arguments into the builder through the compile time generated writer of the
+     * method.
+     */
+    public void appendArgs(StringBuilder bldr, LoggerAdapter.Args adapter, Object[] args, Limits limits) {
+        int mark = bldr.length();
+        bldr.append('[');
+        adapter.write(new ArgsWriter(bldr, limits, mark), args);
+        bldr.append(']');
+        truncate(bldr, limits, mark);
+    }
+
+    /**
+     * Appends the given method result into the builder.
+     */
+    public void append(StringBuilder bldr, Object result, Limits limits) {
+        append(bldr, result, limits, false);
+    }
+
+    /**
+     * Lets the writer append into the per thread builder and returns its content.
+     */
+    public String render(Consumer<StringBuilder> writer) {
+        Buffer buffer = BUFFERS.get();
+        if (buffer.busy) {
+            StringBuilder bldr = new StringBuilder(INITIAL_CAPACITY);
+            writer.accept(bldr);
+            return bldr.toString();
+        }
+        buffer.busy = true;
+        try {
+            writer.accept(buffer.builder);
+            return buffer.builder.toString();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Appends the given method arguments into the builder as a JSON array.
+     */
+    public void appendJsonArgs(StringBuilder bldr, Object[] args, Limits limits) {
+        int mark = bldr.length();
+        if (args == null) {
+            bldr.append("null");
+            return;
+        }
+        bldr.append('[');
+        for (int i = 0; i < args.length && !limits.full(bldr, mark); i++) {
+            separateJson(bldr, i);
+            if (limits.maskedArg(i)) {
+                appendJsonString(bldr, LoggerMask.MASKED);
+            } else {
+                appendJson(bldr, args[i], limits, mark, 0);
+            }
+        }
+        bldr.append(']');
+    }
+
+    /**
+     * Appends the given method result into the builder as a JSON value.
+     */
+    public void appendJson(StringBuilder bldr, Object result, Limits limits) {
+        appendJson(bldr, result, limits, bldr.length(), 0);
+    }
+
+    /**
+     * Appends the given value into the builder as an escaped JSON string.
+     */
+    public static void appendJsonString(StringBuilder bldr, CharSequence value) {
+        appendJsonString(bldr, value, value.length());
+    }
+
+    private String render(Object arg, Limits limits, boolean args) {
+        Buffer buffer = BUFFERS.get();
+        // an argument toString() may log by itself, so the buffer may already be in use
+        if (buffer.busy) {
+            StringBuilder bldr = new StringBuilder(INITIAL_CAPACITY);
+            append(bldr, arg, limits, args);
+            return bldr.toString();
+        }
+        buffer.busy = true;
+        try {
+            append(buffer.builder, arg, limits, args);
+            return buffer.builder.toString();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private void append(StringBuilder bldr, Object arg, Limits limits, boolean args) {
+        int mark = bldr.length();
+        if (args && arg != null) {
+            Object[] array = (Object[]) arg;
+            bldr.append('[');
+            for (int i = 0; i < array.length && !limits.full(bldr, mark); i++) {
+                separate(bldr, i);
+                if (limits.maskedArg(i)) {
+                    bldr.append(LoggerMask.MASKED);
+                } else {
+                    append(bldr, array[i], limits, mark, 0);
+                }
+            }
+            bldr.append(']');
+        } else {
+            append(bldr, arg, limits, mark, 0);
+        }
+        truncate(bldr, limits, mark);
+    }
+
+    private static void truncate(StringBuilder bldr, Limits limits, int mark) {
+        if (limits.maxChars >= 0 && bldr.length() - mark > limits.maxChars) {
+            bldr.setLength(mark + limits.maxChars);
+            bldr.append(TRUNCATED);
+        }
+    }
+
+    private void append(StringBuilder bldr, Object arg, Limits limits, int mark, int depth) {
+        ArgumentRenderer<Object> renderer;
+        if (arg == null) {
+            bldr.append("NULL");
+        } else if (renderers != null && (renderer = renderers.find(arg.getClass())) != null) {
+            renderer.render(arg, new Context(bldr, limits, mark, depth));
+        } else if (arg.getClass().isArray()) {
+            if (arg instanceof Object[]) {
+                appendObjectArray(bldr, (Object[]) arg, limits, mark, depth);
+            } else {
+                appendPrimitiveArray(bldr, arg, limits, mark, depth);
+            }
+        } else if (arg instanceof String) {
+            appendQuoted(bldr, (String) arg, limits, mark);
+        } else if (arg instanceof Collection && limits.bounded()) {
+            appendCollection(bldr, (Collection<?>) arg, limits, mark, depth);
+        } else if (arg instanceof Map && limits.bounded()) {
+            appendMap(bldr, (Map<?, ?>) arg, limits, mark, depth);
+        } else {
+            // collections and maps too, when unbounded, so that their own toString() is kept
+            String origin = arg.toString();
+            if (origin == null || origin.isEmpty()) {
+                bldr.append("''");
+            } else {
+                appendBounded(bldr, origin, limits, mark);
+            }
+        }
+    }
+
+    private static void appendQuoted(StringBuilder bldr, String value, Limits limits, int mark) {
+        bldr.append('\'');
+        appendBounded(bldr, value, limits, mark);
+        bldr.append('\'');
+    }
+
+    /**
+     * Appends no more than the remaining max chars of the value, the overflow is then marked as truncated.
+     */
+    private static void appendBounded(StringBuilder bldr, String value, Limits limits, int mark) {
+        int length = value.length();
+        if (limits.maxChars >= 0) {
+            length = Math.min(length, Math.max(limits.maxChars - (bldr.length() - mark), 0));
+        }
+        bldr.append(value, 0, length);
+    }
+
+    private void appendObjectArray(StringBuilder bldr, Object[] arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append('[').append(TRUNCATED).append(']');
+            return;
+        }
+        bldr.append('[');
+        int count = limits.count(arg.length);
+        for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+            separate(bldr, i);
+            append(bldr, arg[i], limits, mark, depth + 1);
+        }
+        more(bldr, count, arg.length).append(']');
+    }
+
+    private void appendCollection(StringBuilder bldr, Collection<?> arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append('[').append(TRUNCATED).append(']');
+            return;
+        }
+        bldr.append('[');
+        int count = limits.count(arg.size());
+        Iterator<?> it = arg.iterator();
+        for (int i = 0; i < count && it.hasNext() && !limits.full(bldr, mark); i++) {
+            separate(bldr, i);
+            append(bldr, it.next(), limits, mark, depth + 1);
+        }
+        more(bldr, count, arg.size()).append(']');
+    }
+
+    private void appendMap(StringBuilder bldr, Map<?, ?> arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append('{').append(TRUNCATED).append('}');
+            return;
+        }
+        bldr.append('{');
+        int count = limits.count(arg.size());
+        Iterator<? extends Map.Entry<?, ?>> it = arg.entrySet().iterator();
+        for (int i = 0; i < count && it.hasNext() && !limits.full(bldr, mark); i++) {
+            Map.Entry<?, ?> entry = it.next();
+            separate(bldr, i);
+            append(bldr, entry.getKey(), limits, mark, depth + 1);
+            bldr.append('=');
+            if (limits.maskedKey(entry.getKey())) {
+                bldr.append(LoggerMask.MASKED);
+            } else {
+                append(bldr, entry.getValue(), limits, mark, depth + 1);
+            }
+        }
+        more(bldr, count, arg.size()).append('}');
+    }
+
+    private void appendPrimitiveArray(StringBuilder bldr, Object arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append('[').append(TRUNCATED).append(']');
+            return;
+        }
+        bldr.append('[');
+        int length;
+        int count;
+        if (arg instanceof char[]) {
+            char[] array = (char[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof byte[]) {
+            byte[] array = (byte[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof short[]) {
+            short[] array = (short[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof int[]) {
+            int[] array = (int[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof long[]) {
+            long[] array = (long[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof float[]) {
+            float[] array = (float[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof double[]) {
+            double[] array = (double[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else if (arg instanceof boolean[]) {
+            boolean[] array = (boolean[]) arg;
+            length = array.length;
+            count = limits.count(length);
+            for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+                separate(bldr, i).append(array[i]);
+            }
+        } else {
+            bldr.append("unknown]");
+            return;
+        }
+        more(bldr, count, length).append(']');
+    }
+
+    private void appendJson(StringBuilder bldr, Object arg, Limits limits, int mark, int depth) {
+        ArgumentRenderer<Object> renderer;
+        if (arg == null) {
+            bldr.append("null");
+        } else if (renderers != null && (renderer = renderers.find(arg.getClass())) != null) {
+            StringBuilder text = new StringBuilder();
+            renderer.render(arg, new Context(text, limits, 0, depth));
+            appendJsonString(bldr, text, limits, mark);
+        } else if (arg instanceof Boolean || arg instanceof Integer || arg instanceof Long
+                || arg instanceof Short || arg instanceof Byte
+                || arg instanceof BigInteger || arg instanceof BigDecimal) {
+            bldr.append(arg);
+        } else if (arg instanceof Double || arg instanceof Float) {
+            double value = ((Number) arg).doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                appendJsonString(bldr, arg.toString(), limits, mark);
+            } else {
+                bldr.append(arg);
+            }
+        } else if (arg.getClass().isArray()) {
+            appendJsonArray(bldr, arg, limits, mark, depth);
+        } else if (arg instanceof Collection) {
+            appendJsonCollection(bldr, (Collection<?>) arg, limits, mark, depth);
+        } else if (arg instanceof Map) {
+            appendJsonMap(bldr, (Map<?, ?>) arg, limits, mark, depth);
+        } else if (arg instanceof CharSequence) {
+            appendJsonString(bldr, (CharSequence) arg, limits, mark);
+        } else {
+            String origin = arg.toString();
+            appendJsonString(bldr, origin != null ? origin : "", limits, mark);
+        }
+    }
+
+    private void appendJsonArray(StringBuilder bldr, Object arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append("[\"").append(TRUNCATED).append("\"]");
+            return;
+        }
+        bldr.append('[');
+        int length = Array.getLength(arg);
+        int count = limits.count(length);
+        boolean chars = arg instanceof char[];
+        for (int i = 0; i < count && !limits.full(bldr, mark); i++) {
+            separateJson(bldr, i);
+            if (chars) {
+                appendJsonString(bldr, String.valueOf(((char[]) arg)[i]), limits, mark);
+            } else {
+                appendJson(bldr, Array.get(arg, i), limits, mark, depth + 1);
+            }
+        }
+        moreJson(bldr, count, length).append(']');
+    }
+
+    private void appendJsonCollection(StringBuilder bldr, Collection<?> arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append("[\"").append(TRUNCATED).append("\"]");
+            return;
+        }
+        bldr.append('[');
+        int count = limits.count(arg.size());
+        Iterator<?> it = arg.iterator();
+        for (int i = 0; i < count && it.hasNext() && !limits.full(bldr, mark); i++) {
+            separateJson(bldr, i);
+            appendJson(bldr, it.next(), limits, mark, depth + 1);
+        }
+        moreJson(bldr, count, arg.size()).append(']');
+    }
+
+    private void appendJsonMap(StringBuilder bldr, Map<?, ?> arg, Limits limits, int mark, int depth) {
+        if (limits.tooDeep(depth)) {
+            bldr.append("{\"").append(TRUNCATED).append("\":null}");
+            return;
+        }
+        bldr.append('{');
+        int count = limits.count(arg.size());
+        Iterator<? extends Map.Entry<?, ?>> it = arg.entrySet().iterator();
+        for (int i = 0; i < count && it.hasNext() && !limits.full(bldr, mark); i++) {
+            Map.Entry<?, ?> entry = it.next();
+            separateJson(bldr, i);
+            appendJsonString(bldr, String.valueOf(entry.getKey()), limits, mark);
+            bldr.append(':');
+            if (limits.maskedKey(entry.getKey())) {
+                appendJsonString(bldr, LoggerMask.MASKED);
+            } else {
+                appendJson(bldr, entry.getValue(), limits, mark, depth + 1);
+            }
+        }
+        if (count < arg.size()) {
+            separateJson(bldr, count).append('"').append(TRUNCATED).append("\":").append(arg.size() - count);
+        }
+        bldr.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder bldr, CharSequence value, Limits limits, int mark) {
+        int length = value.length();
+        if (limits.maxChars >= 0) {
+            // strings are cut rather than the whole JSON, which must remain valid
+            int remaining = Math.max(limits.maxChars - (bldr.length() - mark), 0);
+            if (length > remaining) {
+                appendJsonString(bldr, value, remaining);
+                bldr.insert(bldr.length() - 1, TRUNCATED);
+                return;
+            }
+        }
+        appendJsonString(bldr, value, length);
+    }
+
+    private static void appendJsonString(StringBuilder bldr, CharSequence value, int length) {
+        bldr.append('"');
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    bldr.append("\\\"");
+                    break;
+                case '\\':
+                    bldr.append("\\\\");
+                    break;
+                case '\n':
+                    bldr.append("\\n");
+                    break;
+                case '\r':
+                    bldr.append("\\r");
+                    break;
+                case '\t':
+                    bldr.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        bldr.append("\\u00").append(HEX[ch >> 4]).append(HEX[ch & 0xF]);
+                    } else {
+                        bldr.append(ch);
+                    }
+                    break;
+            }
+        }
+        bldr.append('"');
+    }
+
+    private static StringBuilder separateJson(StringBuilder bldr, int index) {
+        return index > 0 ? bldr.append(',') : bldr;
+    }
+
+    private static StringBuilder moreJson(StringBuilder bldr, int count, int length) {
+        if (count < length) {
+            separateJson(bldr, count).append('"').append(TRUNCATED).append(" (").append(length - count)
+                    .append(" more)\"");
+        }
+        return bldr;
+    }
+
+    private static StringBuilder separate(StringBuilder bldr, int index) {
+        return index > 0 ? bldr.append(", ") : bldr;
+    }
+
+    private static StringBuilder more(StringBuilder bldr, int count, int length) {
+        if (count < length) {
+            separate(bldr, count).append(TRUNCATED).append(" (").append(length - count).append(" more)");
+        }
+        return bldr;
+    }
+
+    /**
+     * Appends the arguments written by a generated {@link LoggerAdapter}, exactly as the runtime type
+     * dispatch would have.
+     */
+    private final class ArgsWriter implements LoggerAdapter.Writer {
+
+        private final StringBuilder bldr;
+        private final Limits limits;
+        private final int mark;
+        private int index;
+
+        ArgsWriter(StringBuilder bldr, Limits limits, int mark) {
+            this.bldr = bldr;
+            this.limits = limits;
+            this.mark = mark;
+        }
+
+        private boolean next() {
+            if (limits.full(bldr, mark)) {
+                return false;
+            }
+            separate(bldr, index);
+            if (limits.maskedArg(index++)) {
+                bldr.append(LoggerMask.MASKED);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void arg(Object value) {
+            if (next()) {
+                append(bldr, value, limits, mark, 0);
+            }
+        }
+
+        @Override
+        public void arg(String value) {
+            if (next()) {
+                if (value == null) {
+                    bldr.append("NULL");
+                } else {
+                    appendQuoted(bldr, value, limits, mark);
+                }
+            }
+        }
+
+        @Override
+        public void arg(int value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(long value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(short value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(byte value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(char value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(boolean value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(float value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+
+        @Override
+        public void arg(double value) {
+            if (next()) {
+                bldr.append(value);
+            }
+        }
+    }
+
+    /**
+     * Lets an {@link ArgumentRenderer} append nested values as any other value of the same depth.
+     */
+    private final class Context implements ArgumentRenderer.Context {
+
+        private final StringBuilder bldr;
+        private final Limits limits;
+        private final int mark;
+        private final int depth;
+
+        Context(StringBuilder bldr, Limits limits, int mark, int depth) {
+            this.bldr = bldr;
+            this.limits = limits;
+            this.mark = mark;
+            this.depth = depth;
+        }
+
+        @Override
+        public StringBuilder builder() {
+            return bldr;
+        }
+
+        @Override
+        public void append(Object value) {
+            if (!limits.full(bldr, mark)) {
+                LoggerArgsRenderer.this.append(bldr, value, limits, mark, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Rendering limits and masking of a method, a negative limit means unlimited.
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class Limits {
+
+        static final Limits NONE = new Limits(-1, -1, -1);
+
+        private final int maxChars;
+        private final int maxElements;
+        private final int maxDepth;
+        private final LoggerMask mask;
+
+        Limits(int maxChars, int maxElements, int maxDepth) {
+            this(maxChars, maxElements, maxDepth, null);
+        }
+
+        boolean maskedArg(int index) {
+            return mask != null && mask.param(index);
+        }
+
+        boolean maskedKey(Object key) {
+            return mask != null && mask.key(key);
+        }
+
+        boolean tooDeep(int depth) {
+            return maxDepth >= 0 && depth >= maxDepth;
+        }
+
+        int count(int length) {
+            return maxElements >= 0 ? Math.min(length, maxElements) : length;
+        }
+
+        /**
+         * Should collections and maps be iterated rather than rendered by their toString()?
+         */
+        boolean bounded() {
+            return maxChars >= 0 || maxElements >= 0 || maxDepth >= 0 || mask != null && mask.hasKeys();
+        }
+
+        boolean full(StringBuilder bldr, int mark) {
+            return maxChars >= 0 && bldr.length() - mark > maxChars;
+        }
+    }
+
+    /**
+     * Per thread reusable builder.
+     */
+    private static final class Buffer {
+
+        private StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+        private boolean busy;
+
+        void release() {
+            busy = false;
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builder = new StringBuilder(INITIAL_CAPACITY);
+            } else {
+                builder.setLength(0);
+            }
+        }
+    }
+}
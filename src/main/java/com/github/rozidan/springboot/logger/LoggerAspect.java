@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * AspectJ woven counterpart of the {@link LoggerInterceptor}, for the {@code AdviceMode.ASPECTJ} mode.
+ *
+ * Declared in the META-INF/aop.xml of the application (or in META-INF/logger/aop.xml of this library, once
+ * added to the weaver configuration), it is woven by the AspectJ load-time weaver (or by ajc) into the
+ * {@link Loggable} methods themselves, including self-invocations, non-public methods and objects that
+ * are not Spring beans. Until a {@link LoggerInterceptor} is bound to it, it just proceeds.
+ *
+ * There is a single aspect per class loader, shared by all the application contexts, whereas every context
+ * owns the interceptor it binds.
+ *
+ * @author Idan Rozenfeld
+ * @see EnableLogger#mode()
+ */
+@Aspect
+public class LoggerAspect {
+
+    private final AtomicReference<LoggerInterceptor> interceptor = new AtomicReference<>();
+
+    @Pointcut("execution(* *(..))"
+            + " && !execution(String *.toString())"
+            + " && !execution(int *.hashCode())"
+            + " && !execution(boolean *.canEqual(Object))"
+            + " && !execution(boolean *.equals(Object))"
+            + " && !execution(* lambda$*(..))"
+            + " && !within(com.github.rozidan.springboot.logger.LoggerAspect)")
+    protected void method() {
+    }
+
+    @Pointcut("@annotation(loggable)")
+    protected void loggableMethod(Loggable loggable) {
+    }
+
+    @Pointcut("@within(loggable)")
+    protected void loggableClass(Loggable loggable) {
+    }
+
+    @Around(value = "method() && loggableMethod(loggable)", argNames = "joinPoint,loggable")
+    public Object logExecutionMethod(ProceedingJoinPoint joinPoint, Loggable loggable) throws Throwable {
+        LoggerInterceptor current = interceptor.get();
+        return current != null ? current.logMethod(joinPoint, loggable) : joinPoint.proceed();
+    }
+
+    @Around(value = "method() && loggableClass(loggable) && !loggableMethod(com.github.rozidan.springboot.logger.Loggable)", argNames = "joinPoint,loggable")
+    public Object logExecutionClass(ProceedingJoinPoint joinPoint, Loggable loggable) throws Throwable {
+        LoggerInterceptor current = interceptor.get();
+        return current != null ? current.logMethod(joinPoint, loggable) : joinPoint.proceed();
+    }
+
+    /**
+     * Binds the interceptor that logs the woven methods, constructing it. An interceptor bound by another
+     * context is replaced, but is left to be destroyed by its own context.
+     *
+     * @return the binding, to be closed along with the context that owns the interceptor
+     */
+    Binding bind(LoggerInterceptor interceptor) {
+        interceptor.construct();
+        this.interceptor.set(interceptor);
+        return new Binding(interceptor);
+    }
+
+    /**
+     * Binding of an interceptor, owned by a single context.
+     */
+    final class Binding implements AutoCloseable {
+
+        private final LoggerInterceptor owned;
+
+        private Binding(LoggerInterceptor owned) {
+            this.owned = owned;
+        }
+
+        /**
+         * Unbinds the interceptor, unless another one was bound since, and destroys it.
+         */
+        @Override
+        public void close() {
+            interceptor.compareAndSet(owned, null);
+            owned.destroy();
+        }
+    }
+}
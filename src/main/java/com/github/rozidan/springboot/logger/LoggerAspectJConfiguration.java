@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.ThreadFactory;
+import org.aspectj.lang.Aspects;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Configures the logger for AspectJ weaving.
+ *
+ * The {@link LoggerInterceptor} is not registered as a bean, so it is never applied through Spring AOP
+ * proxies as well, it is bound to the woven {@link LoggerAspect} instead, and destroyed along with the context.
+ *
+ * @author Idan Rozenfeld
+ * @see EnableLogger#mode()
+ */
+@Configuration
+@EnableConfigurationProperties(LoggerProperties.class)
+@Import({LoggerConfiguration.MetricsConfiguration.class, LoggerConfiguration.EndpointConfiguration.class})
+public class LoggerAspectJConfiguration {
+
+    @Bean
+    public Logger logger() {
+        return new Logger();
+    }
+
+    @Bean
+    LoggerOverrides loggerOverrides(LoggerProperties properties) {
+        return new LoggerOverrides(properties.getOverrides());
+    }
+
+    @Bean
+    public LoggerAspect loggerAspect() {
+        // fails when the aspect was not woven
+        return Aspects.aspectOf(LoggerAspect.class);
+    }
+
+    @Bean
+    LoggerAspect.Binding loggerAspectBinding(
+            LoggerAspect aspect, Logger logger, LoggerProperties properties,
+            @Qualifier("loggerThreadFactory") ObjectProvider<ThreadFactory> threadFactory,
+            ObjectProvider<LoggerMetrics> metrics, ObjectProvider<LoggerOverrides> overrides,
+            ObjectProvider<ArgumentRenderer<?>> renderers, ObjectProvider<LoggerClock> clock) {
+        return aspect.bind(LoggerConfiguration.interceptor(logger, properties, threadFactory, metrics,
+                overrides, renderers, clock));
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Bounded lock free ring buffer of {@link LoggerEvent}s, rendered and logged by background consumers.
+ *
+ * Slots are pre-allocated and claimed through per slot sequences, so producers and consumers never block
+ * each other unless the buffer is full. The MDC of the caller, unless excluded, is restored while its event is
+ * logged, along with the caller thread name as the {@value #MDC_THREAD} entry.
+ *
+ * Idle consumers back off progressively, up to a long park from which the next published event wakes them.
+ * Several consumers log the events concurrently, those of a same caller may then be logged out of order.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerAsyncDispatcher {
+
+    static final String MDC_THREAD = "logger.thread";
+
+    private static final long MIN_IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final LoggerEvent[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final LoggerProperties.Overflow overflow;
+    private final boolean includeMdc;
+    private final Consumer<LoggerEvent> writer;
+    private final Thread[] consumers;
+
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong reported = new AtomicLong();
+
+    private volatile boolean stopped;
+    private volatile boolean idle;
+
+    LoggerAsyncDispatcher(LoggerProperties.Async async, ThreadFactory threadFactory,
+                          Consumer<LoggerEvent> writer) {
+        if (async.getBufferSize() <= 0 || async.getBufferSize() > 1 << 30) {
+            throw new IllegalArgumentException("Buffer size must be between 1 and 2^30.");
+        }
+        if (async.getConsumers() <= 0) {
+            throw new IllegalArgumentException("Consumers must be greater than 0.");
+        }
+        // a single slot could not tell a published event from a free slot
+        int size = 2;
+        while (size < async.getBufferSize()) {
+            size <<= 1;
+        }
+        this.events = new LoggerEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            events[i] = new LoggerEvent();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflow = async.getOverflow();
+        this.includeMdc = async.isIncludeMdc();
+        this.writer = writer;
+        this.consumers = new Thread[async.getConsumers()];
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = threadFactory.newThread(this::consume);
+            consumers[i].start();
+        }
+    }
+
+    /**
+     * Publishes an event to the buffer.
+     *
+     * @return false if the event should be logged by the caller, because the buffer is full
+     */
+    public boolean publish(LoggerEvent.Type type, LogLevel level, LoggerPlan plan,
+                           Object[] args, Object result, long nano, Throwable err,
+                           LoggerThreadSnapshot snapshot) {
+        Map<String, String> mdc = includeMdc ? MDC.getCopyOfContextMap() : null;
+        String thread = Thread.currentThread().getName();
+        while (!stopped) {
+            long pos = tail.get();
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events[index].set(type, level, plan, args, result, nano, err, snapshot);
+                    events[index].context(mdc, thread);
+                    // a volatile write, so either the idle flag set by a consumer is read here,
+                    // or the consumer polls this event once it has set it
+                    sequences.set(index, pos + 1);
+                    if (idle) {
+                        signal();
+                    }
+                    return true;
+                }
+            } else if (diff < 0) {
+                switch (overflow) {
+                    case DROP:
+                        dropped.increment();
+                        return true;
+                    case SYNC:
+                        return false;
+                    case BLOCK:
+                    default:
+                        // still running warnings are published by the watchdog, which must never wait
+                        // for the consumers, they are logged on it instead
+                        if (type == LoggerEvent.Type.RUNNING) {
+                            return false;
+                        }
+                        LockSupport.parkNanos(FULL_NANOS);
+                        break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of events dropped since startup because the buffer was full.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops the consumers, after they log all the published events.
+     */
+    public void stop() {
+        stopped = true;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void signal() {
+        idle = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        long idleNanos = MIN_IDLE_NANOS;
+        while (true) {
+            if (poll()) {
+                idleNanos = MIN_IDLE_NANOS;
+                continue;
+            }
+            reportDropped();
+            if (stopped) {
+                return;
+            }
+            if (idleNanos == MAX_IDLE_NANOS) {
+                // woken up by the next publish, polled again for an event published meanwhile,
+                // the park timeout only bounds a missed signal
+                idle = true;
+                if (poll()) {
+                    idleNanos = MIN_IDLE_NANOS;
+                    continue;
+                }
+            }
+            LockSupport.parkNanos(this, idleNanos);
+            idleNanos = Math.min(idleNanos << 1, MAX_IDLE_NANOS);
+        }
+    }
+
+    private boolean poll() {
+        long pos = head.get();
+        int index = (int) (pos & mask);
+        long diff = sequences.get(index) - (pos + 1);
+        if (diff < 0) {
+            return false;
+        }
+        if (diff == 0 && head.compareAndSet(pos, pos + 1)) {
+            LoggerEvent event = events[index];
+            try {
+                if (event.getMdc() != null) {
+                    MDC.setContextMap(event.getMdc());
+                }
+                MDC.put(MDC_THREAD, event.getThread());
+                writer.accept(event);
+            } catch (Throwable ex) {
+                // a dead consumer would leave the producers parked forever with the BLOCK overflow
+                LoggerFactory.getLogger(LoggerAsyncDispatcher.class).warn("Failed to log event", ex);
+            } finally {
+                MDC.clear();
+                event.clear();
+                sequences.lazySet(index, pos + mask + 1);
+            }
+        }
+        return true;
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        long previous = reported.get();
+        if (total > previous && reported.compareAndSet(previous, total)) {
+            LoggerFactory.getLogger(LoggerAsyncDispatcher.class)
+                    .warn("Dropped {} log events, buffer is full (total {})", total - previous, total);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Per thread ring of the most recent invocations, kept instead of being logged.
+ *
+ * The ring is scoped by the outermost {@link Loggable} invocation of the thread. Its events are
+ * pre-allocated and hold references to the arguments and results, which are rendered only when the ring
+ * is flushed on an error or a warnOver breach, otherwise they are discarded once the scope ends.
+ *
+ * A box is captured by each invocation, and asynchronous completions may reach it from another thread,
+ * it is only ever kept and flushed by its own thread.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerBlackBox {
+
+    private final LoggerEvent[] events;
+    private final Thread owner = Thread.currentThread();
+    private int next;
+    private int count;
+    private int depth;
+    private boolean flushing;
+
+    LoggerBlackBox(int size) {
+        this.events = new LoggerEvent[Math.max(size, 1)];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new LoggerEvent();
+        }
+    }
+
+    /**
+     * Enters an invocation, the outermost one opens the scope.
+     */
+    void open() {
+        depth++;
+    }
+
+    /**
+     * Exits an invocation, the outermost one discards the remaining events.
+     */
+    void close() {
+        if (--depth == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Keeps the given event, overwriting the oldest one once the ring is full. Events out of any scope, or
+     * of asynchronous completions on another thread, are not kept.
+     */
+    void record(LoggerEvent.Type type, LoggerPlan plan, Object[] args, Object result, long nano) {
+        if (depth == 0 || flushing || Thread.currentThread() != owner) {
+            return;
+        }
+        events[next].set(type, plan.getLevel(), plan, args, result, nano, null, null);
+        next = (next + 1) % events.length;
+        if (count < events.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Hands the kept events, oldest first, to the given sink and discards them, nothing is flushed on
+     * another thread.
+     */
+    void flush(Consumer<LoggerEvent> sink) {
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+        // rendering may invoke Loggable methods, which are not kept meanwhile
+        flushing = true;
+        try {
+            int first = next - count + events.length;
+            for (int i = 0; i < count; i++) {
+                sink.accept(events[(first + i) % events.length]);
+            }
+        } finally {
+            flushing = false;
+            clear();
+        }
+    }
+
+    private void clear() {
+        for (int i = 1; i <= count; i++) {
+            events[(next - i + events.length) % events.length].clear();
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Arrays;
+
+/**
+ * Per thread call tree of nested {@link Loggable} invocations.
+ *
+ * Invocations are recorded into pre-sized parallel arrays, in the order they are entered, so recording an
+ * invocation allocates nothing. Each node keeps its parent, depth, total time and the total time of its
+ * children, its self time is the difference. Invocations beyond the maximum nodes or nesting are not
+ * recorded, their time is part of the self time of their recorded parent.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerCallTree {
+
+    private static final String TRUNCATED = "...";
+
+    private final int maxNodes;
+    private final int maxDepth;
+
+    private final LoggerPlan[] plans;
+    private final int[] depths;
+    private final long[] starts;
+    private final long[] totals;
+    private final long[] children;
+
+    private final int[] open;
+    private int top;
+    private int size;
+    private int skipped;
+    private int dropped;
+
+    LoggerCallTree(int maxNodes, int maxDepth) {
+        this.maxNodes = Math.max(maxNodes, 1);
+        this.maxDepth = Math.max(maxDepth, 1);
+        this.plans = new LoggerPlan[this.maxNodes];
+        this.depths = new int[this.maxNodes];
+        this.starts = new long[this.maxNodes];
+        this.totals = new long[this.maxNodes];
+        this.children = new long[this.maxNodes];
+        this.open = new int[this.maxDepth];
+    }
+
+    /**
+     * Records the invocation of the given method, nested in the currently open invocation.
+     */
+    void enter(LoggerPlan plan, long now) {
+        if (skipped > 0 || top == maxDepth || size == maxNodes) {
+            skipped++;
+            dropped++;
+            return;
+        }
+        int node = size++;
+        plans[node] = plan;
+        depths[node] = top;
+        starts[node] = now;
+        children[node] = 0;
+        open[top++] = node;
+    }
+
+    /**
+     * Completes the currently open invocation, returns the total time of the root invocation once it is
+     * completed, otherwise -1.
+     */
+    long exit(long now) {
+        if (skipped > 0) {
+            skipped--;
+            return -1;
+        }
+        int node = open[--top];
+        long total = now - starts[node];
+        totals[node] = total;
+        if (top > 0) {
+            children[open[top - 1]] += total;
+            return -1;
+        }
+        return total;
+    }
+
+    /**
+     * The plan of the root invocation.
+     */
+    LoggerPlan root() {
+        return plans[0];
+    }
+
+    /**
+     * Renders the completed tree, either whole or as the given number of hottest methods by self time.
+     */
+    String render(int hottest) {
+        StringBuilder bldr = new StringBuilder(64 + size * 32);
+        if (hottest > 0) {
+            appendHottest(bldr, hottest);
+        } else {
+            appendTree(bldr);
+        }
+        if (dropped > 0) {
+            bldr.append(", ").append(TRUNCATED).append(" (").append(dropped).append(" more)");
+        }
+        return bldr.toString();
+    }
+
+    /**
+     * Forgets the completed tree.
+     */
+    void clear() {
+        Arrays.fill(plans, 0, size, null);
+        size = 0;
+        top = 0;
+        skipped = 0;
+        dropped = 0;
+    }
+
+    private void appendTree(StringBuilder bldr) {
+        int previous = -1;
+        for (int node = 0; node < size; node++) {
+            int depth = depths[node];
+            if (node > 0) {
+                if (depth > previous) {
+                    bldr.append(" {");
+                } else {
+                    close(bldr, previous - depth).append(", ");
+                }
+            }
+            bldr.append(plans[node].getShortName()).append(' ');
+            LoggerDurations.append(bldr, totals[node]);
+            if (children[node] > 0) {
+                LoggerDurations.append(bldr.append(" (self "), totals[node] - children[node]).append(')');
+            }
+            previous = depth;
+        }
+        close(bldr, previous);
+    }
+
+    private void appendHottest(StringBuilder bldr, int hottest) {
+        // the self times and counts of the same method are summed up into its first node
+        long[] self = new long[size];
+        int[] counts = new int[size];
+        for (int node = 0; node < size; node++) {
+            int first = node;
+            for (int i = 0; i < node; i++) {
+                if (plans[i] == plans[node]) {
+                    first = i;
+                    break;
+                }
+            }
+            self[first] += totals[node] - children[node];
+            counts[first]++;
+        }
+        bldr.append("hottest ");
+        for (int rank = 0; rank < hottest; rank++) {
+            int max = -1;
+            for (int node = 0; node < size; node++) {
+                if (counts[node] > 0 && (max < 0 || self[node] > self[max])) {
+                    max = node;
+                }
+            }
+            if (max < 0) {
+                break;
+            }
+            if (rank > 0) {
+                bldr.append(", ");
+            }
+            bldr.append(plans[max].getShortName()).append(' ');
+            LoggerDurations.append(bldr, self[max]);
+            if (counts[max] > 1) {
+                bldr.append(" (x").append(counts[max]).append(')');
+            }
+            counts[max] = 0;
+        }
+    }
+
+    private static StringBuilder close(StringBuilder bldr, int count) {
+        for (int i = 0; i < count; i++) {
+            bldr.append('}');
+        }
+        return bldr;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+/**
+ * Time source of the measured durations, can be replaced by a bean so tests and benchmarks are
+ * deterministic.
+ *
+ * @author Idan Rozenfeld
+ */
+@FunctionalInterface
+public interface LoggerClock {
+
+    /**
+     * The {@link System#nanoTime()} clock. (default)
+     */
+    LoggerClock SYSTEM = System::nanoTime;
+
+    /**
+     * Current value of the clock in nanoseconds, only the difference between two values is meaningful.
+     */
+    long nanoTime();
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.Assign;
+import org.springframework.expression.spel.ast.OpDec;
+import org.springframework.expression.spel.ast.OpInc;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Precompiled SpEL condition of a {@link Loggable} method.
+ *
+ * The expression is parsed once, when the plan of the method is built, and compiled into bytecode by the
+ * SpEL compiler on its first evaluation. The arguments are available by their parameter names (or as
+ * {@code #p0}, {@code #a0}), and the result as {@code #result}. The parameter names are resolved once, an
+ * evaluation only binds the arguments of the invocation to a context reused by the thread. A condition that
+ * cannot be parsed, or that assigns variables, is disabled, and one that cannot be evaluated lets the
+ * invocation be logged.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerCondition {
+
+    static final String RESULT = "result";
+
+    private static final int RESULT_INDEX = -1;
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final Method method;
+    private final String attribute;
+    private final Expression expression;
+    private final Map<String, Integer> variables;
+    private final StandardEvaluationContext shared;
+    private final ThreadLocal<Invocation> invocations = ThreadLocal.withInitial(Invocation::new);
+    private volatile boolean failed;
+
+    private LoggerCondition(Method method, String attribute, Expression expression) {
+        this.method = method;
+        this.attribute = attribute;
+        this.expression = expression;
+        this.variables = variables(method);
+        // holds the resolvers and converters shared by all the evaluations, initialized up front
+        this.shared = new StandardEvaluationContext();
+        shared.getPropertyAccessors();
+        shared.getConstructorResolvers();
+        shared.getMethodResolvers();
+    }
+
+    /**
+     * Parses the given condition attribute of the method, null when there is none or when it is invalid.
+     */
+    static LoggerCondition of(Method method, String attribute, String condition) {
+        if (condition.isEmpty()) {
+            return null;
+        }
+        try {
+            return new LoggerCondition(method, attribute, parse(method, attribute, condition));
+        } catch (ParseException e) {
+            LoggerFactory.getLogger(LoggerCondition.class)
+                    .error("Invalid {} of {}, its invocations are logged unconditionally", attribute, method, e);
+            return null;
+        }
+    }
+
+    /**
+     * Fails when a condition of the given method is invalid, so that it is reported on startup rather
+     * than on the first invocation.
+     *
+     * @throws IllegalStateException when a condition cannot be parsed or assigns variables
+     */
+    static void validate(Method method, Loggable loggable) {
+        validate(method, "condition", loggable.condition());
+        validate(method, "resultCondition", loggable.resultCondition());
+    }
+
+    private static void validate(Method method, String attribute, String condition) {
+        if (condition.isEmpty()) {
+            return;
+        }
+        try {
+            parse(method, attribute, condition);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid " + attribute + " of " + method, e);
+        }
+    }
+
+    private static Expression parse(Method method, String attribute, String condition) {
+        SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(
+                SpelCompilerMode.IMMEDIATE, method.getDeclaringClass().getClassLoader()));
+        Expression expression = parser.parseExpression(condition);
+        if (expression instanceof SpelExpression) {
+            rejectAssignments(condition, attribute, ((SpelExpression) expression).getAST());
+        }
+        return expression;
+    }
+
+    /**
+     * Conditions are evaluated against the arguments of the invocation, they cannot assign them.
+     */
+    private static void rejectAssignments(String condition, String attribute, SpelNode node) {
+        if (node instanceof Assign || node instanceof OpInc || node instanceof OpDec) {
+            throw new ParseException(condition, node.getStartPosition(),
+                    "A " + attribute + " cannot assign variables");
+        }
+        for (int i = 0; i < node.getChildCount(); i++) {
+            rejectAssignments(condition, attribute, node.getChild(i));
+        }
+    }
+
+    private static Map<String, Integer> variables(Method method) {
+        Map<String, Integer> variables = new HashMap<>();
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            variables.put("p" + i, i);
+            variables.put("a" + i, i);
+            if (names != null) {
+                variables.put(names[i], i);
+            }
+        }
+        variables.put(RESULT, RESULT_INDEX);
+        return variables;
+    }
+
+    /**
+     * Does the invocation meet the condition?
+     */
+    boolean matches(Object[] args, Object result) {
+        Invocation invocation = invocations.get();
+        // the condition may invoke the method itself, whose invocation is bound meanwhile
+        Object[] outerArgs = invocation.args;
+        Object outerResult = invocation.result;
+        invocation.args = args;
+        invocation.result = result;
+        try {
+            return Boolean.TRUE.equals(expression.getValue(invocation, Boolean.class));
+        } catch (RuntimeException e) {
+            // compiled expressions throw any exception, the application must not fail because of its logging
+            if (!failed) {
+                failed = true;
+                LoggerFactory.getLogger(LoggerCondition.class)
+                        .warn("Unable to evaluate the {} of {}, its invocations are logged", attribute, method, e);
+            }
+            return true;
+        } finally {
+            invocation.args = outerArgs;
+            invocation.result = outerResult;
+        }
+    }
+
+    /**
+     * Binds the arguments and the result of the current invocation of the thread, everything else is shared.
+     */
+    private final class Invocation implements EvaluationContext {
+
+        private Object[] args;
+        private Object result;
+
+        @Override
+        public Object lookupVariable(String name) {
+            Integer index = variables.get(name);
+            if (index == null) {
+                return null;
+            }
+            if (index == RESULT_INDEX) {
+                return result;
+            }
+            return args != null && index < args.length ? args[index] : null;
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            // assignments are rejected once parsed
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return TypedValue.NULL;
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return shared.getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return shared.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return shared.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return null;
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return shared.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return shared.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return shared.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return shared.getOperatorOverloader();
+        }
+    }
+}
@@ -15,8 +15,19 @@
  */
 package com.github.rozidan.springboot.logger;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Collectors;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnEnabledEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 
 /**
  * Configures the logger.
@@ -25,6 +36,7 @@ import org.springframework.context.annotation.Configuration;
  * @see EnableLogger
  */
 @Configuration
+@EnableConfigurationProperties(LoggerProperties.class)
 public class LoggerConfiguration {
 
     @Bean
@@ -33,7 +45,81 @@ public class LoggerConfiguration {
     }
 
     @Bean
-    public LoggerInterceptor loggerInterceptor(Logger logger) {
-        return new LoggerInterceptor(logger);
+    LoggerOverrides loggerOverrides(LoggerProperties properties) {
+        return new LoggerOverrides(properties.getOverrides());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "logger.index", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public LoggerInterceptor loggerInterceptor(Logger logger, LoggerProperties properties,
+                                               @Qualifier("loggerThreadFactory")
+                                                       ObjectProvider<ThreadFactory> threadFactory,
+                                               ObjectProvider<LoggerMetrics> metrics,
+                                               ObjectProvider<LoggerOverrides> overrides,
+                                               ObjectProvider<ArgumentRenderer<?>> renderers,
+                                               ObjectProvider<LoggerClock> clock) {
+        return interceptor(logger, properties, threadFactory, metrics, overrides, renderers, clock);
+    }
+
+    static LoggerInterceptor interceptor(Logger logger, LoggerProperties properties,
+                                         ObjectProvider<ThreadFactory> threadFactory,
+                                         ObjectProvider<LoggerMetrics> metrics,
+                                         ObjectProvider<LoggerOverrides> overrides,
+                                         ObjectProvider<ArgumentRenderer<?>> renderers,
+                                         ObjectProvider<LoggerClock> clock) {
+        LoggerInterceptor interceptor = new LoggerInterceptor(logger, properties);
+        threadFactory.ifAvailable(interceptor::setThreadFactory);
+        metrics.ifAvailable(interceptor::setMetrics);
+        overrides.ifAvailable(interceptor::setOverrides);
+        interceptor.setRenderers(renderers.orderedStream().collect(Collectors.toList()));
+        clock.ifAvailable(interceptor::setClock);
+        return interceptor;
+    }
+
+    /**
+     * Applies the interceptor through an advisor that considers only the indexed types, the interceptor
+     * is not registered as a bean so its pointcuts are never matched.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "logger.index", name = "enabled")
+    static class IndexConfiguration {
+
+        @Bean
+        LoggerAdvisor loggerAdvisor(Logger logger, LoggerProperties properties,
+                                    @Qualifier("loggerThreadFactory") ObjectProvider<ThreadFactory> threadFactory,
+                                    ObjectProvider<LoggerMetrics> metrics,
+                                    ObjectProvider<LoggerOverrides> overrides,
+                                    ObjectProvider<ArgumentRenderer<?>> renderers,
+                                    ObjectProvider<LoggerClock> clock, ResourceLoader resourceLoader) {
+            LoggerIndex index = LoggerIndex.load(resourceLoader.getClassLoader());
+            if (index == null) {
+                LoggerFactory.getLogger(LoggerConfiguration.class)
+                        .warn("No {} found, all the classes are considered for logging", LoggerIndex.LOCATION);
+            }
+            return new LoggerAdvisor(interceptor(logger, properties, threadFactory, metrics, overrides, renderers,
+                    clock), index);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "logger.metrics", name = "enabled", matchIfMissing = true)
+    static class MetricsConfiguration {
+
+        @Bean
+        LoggerMetrics loggerMetrics(ObjectProvider<MeterRegistry> registry, LoggerProperties properties) {
+            return new LoggerMetrics(registry::getIfUnique, properties.getMetrics());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnEnabledEndpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnEnabledEndpoint
+        LoggerEndpoint loggerEndpoint(LoggerOverrides overrides) {
+            return new LoggerEndpoint(overrides);
+        }
     }
 }
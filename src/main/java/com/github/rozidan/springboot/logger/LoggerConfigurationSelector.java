@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import org.springframework.context.annotation.AdviceMode;
+import org.springframework.context.annotation.AdviceModeImportSelector;
+
+/**
+ * Selects the logger configuration by the {@link EnableLogger#mode()}.
+ *
+ * @author Idan Rozenfeld
+ */
+public class LoggerConfigurationSelector extends AdviceModeImportSelector<EnableLogger> {
+
+    @Override
+    protected String[] selectImports(AdviceMode adviceMode) {
+        switch (adviceMode) {
+            case PROXY:
+                return new String[]{LoggerConfiguration.class.getName()};
+            case ASPECTJ:
+                return new String[]{LoggerAspectJConfiguration.class.getName()};
+            default:
+                return null;
+        }
+    }
+}
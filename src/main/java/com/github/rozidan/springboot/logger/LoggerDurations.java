@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+/**
+ * Formats nanosecond durations in the largest fitting unit, e.g. {@code 850ns}, 215.4&micro;s,
+ * {@code 12.345ms} or {@code 2.833s}.
+ *
+ * Durations are appended digit by digit into the given builder, without any intermediate object, and keep
+ * up to three decimals of their unit.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerDurations {
+
+    private static final long MICROS = 1_000L;
+    private static final long MILLIS = 1_000_000L;
+    private static final long SECONDS = 1_000_000_000L;
+
+    private LoggerDurations() {
+    }
+
+    /**
+     * Formats the given duration into a String.
+     */
+    static String format(long nanos) {
+        return append(new StringBuilder(16), nanos).toString();
+    }
+
+    /**
+     * Appends the given duration into the builder.
+     */
+    static StringBuilder append(StringBuilder bldr, long nanos) {
+        if (nanos < 0) {
+            bldr.append('-');
+            nanos = nanos == Long.MIN_VALUE ? Long.MAX_VALUE : -nanos;
+        }
+        if (nanos < MICROS) {
+            return bldr.append(nanos).append("ns");
+        } else if (nanos < MILLIS) {
+            return decimal(bldr, nanos, MICROS).append("\u00b5s");
+        } else if (nanos < SECONDS) {
+            return decimal(bldr, nanos, MILLIS).append("ms");
+        }
+        return decimal(bldr, nanos, SECONDS).append('s');
+    }
+
+    private static StringBuilder decimal(StringBuilder bldr, long nanos, long unit) {
+        bldr.append(nanos / unit);
+        long fraction = nanos % unit / (unit / 1_000);
+        if (fraction > 0) {
+            bldr.append('.');
+            // the trailing zeros are never written
+            for (long divisor = 100; fraction > 0; divisor /= 10) {
+                bldr.append((char) ('0' + fraction / divisor));
+                fraction %= divisor;
+            }
+        }
+        return bldr;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint to override {@link Loggable} attributes at runtime, per class or per method.
+ *
+ * A write replaces the whole override of a class or method, the attributes left out are not overridden.
+ *
+ * @author Idan Rozenfeld
+ * @see LoggerOverrides
+ */
+@Endpoint(id = "loggable")
+public class LoggerEndpoint {
+
+    private final LoggerOverrides overrides;
+
+    LoggerEndpoint(LoggerOverrides overrides) {
+        this.overrides = overrides;
+    }
+
+    @ReadOperation
+    public Map<String, OverrideDescriptor> overrides() {
+        Map<String, OverrideDescriptor> descriptors = new LinkedHashMap<>();
+        overrides.current().getEntries()
+                .forEach((name, entry) -> descriptors.put(name, new OverrideDescriptor(entry)));
+        return descriptors;
+    }
+
+    @ReadOperation
+    public OverrideDescriptor override(@Selector String name) {
+        LoggerOverrides.Entry entry = overrides.current().getEntries().get(name);
+        return entry != null ? new OverrideDescriptor(entry) : null;
+    }
+
+    @WriteOperation
+    public void configure(@Selector String name, @Nullable LogLevel level, @Nullable Boolean entered,
+                          @Nullable Boolean skipArgs, @Nullable Boolean skipResult, @Nullable Duration warnOver) {
+        overrides.put(name, new LoggerOverrides.Entry(level, entered, skipArgs, skipResult, warnOver));
+    }
+
+    @DeleteOperation
+    public void reset(@Selector String name) {
+        overrides.remove(name);
+    }
+
+    /**
+     * Description of an override, a null attribute is not overridden.
+     */
+    @Getter
+    public static final class OverrideDescriptor {
+
+        private final LogLevel level;
+        private final Boolean entered;
+        private final Boolean skipArgs;
+        private final Boolean skipResult;
+        private final Duration warnOver;
+
+        private OverrideDescriptor(LoggerOverrides.Entry entry) {
+            this.level = entry.getLevel();
+            this.entered = entry.getEntered();
+            this.skipArgs = entry.getSkipArgs();
+            this.skipResult = entry.getSkipResult();
+            this.warnOver = entry.getWarnOver();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Locale;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Captured, not yet rendered, log event of an intercepted method.
+ *
+ * Events are pre-allocated and reused by the {@link LoggerAsyncDispatcher}, they hold references to the
+ * method arguments and result, which are rendered later on. The stack of a still running method is kept
+ * apart from its result, which it does not have yet.
+ *
+ * @author Idan Rozenfeld
+ */
+@Getter
+final class LoggerEvent {
+
+    private Type type;
+    private LogLevel level;
+    private LoggerPlan plan;
+    private Object[] args;
+    private Object result;
+    private long nano;
+    private Throwable err;
+    private LoggerThreadSnapshot snapshot;
+    private Map<String, String> mdc;
+    private String thread;
+
+    void set(Type type, LogLevel level, LoggerPlan plan,
+             Object[] args, Object result, long nano, Throwable err, LoggerThreadSnapshot snapshot) {
+        this.type = type;
+        this.level = level;
+        this.plan = plan;
+        this.args = args;
+        this.result = result;
+        this.nano = nano;
+        this.err = err;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Sets the MDC and the name of the calling thread, for an event logged on another thread.
+     */
+    void context(Map<String, String> mdc, String thread) {
+        this.mdc = mdc;
+        this.thread = thread;
+    }
+
+    void clear() {
+        set(null, null, null, null, null, 0, null, null);
+        context(null, null);
+    }
+
+    /**
+     * Type of a log event.
+     */
+    enum Type {
+        ENTERED,
+        RETURNED,
+        RETURNED_OVER,
+        RUNNING,
+        THROWN;
+
+        @Getter
+        private final String key = name().toLowerCase(Locale.ROOT);
+    }
+}
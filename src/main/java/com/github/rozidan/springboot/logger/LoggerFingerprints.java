@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fingerprints of logged errors, an exception class along with its top stack frames.
+ *
+ * The first occurrence of a fingerprint in a window is logged with its stack trace, the following
+ * ones are only counted. The number of fingerprints is bounded, the least recently seen one is evicted
+ * in constant time once the bound is reached.
+ *
+ * The fingerprints are striped by their hash, so that the threads of an error storm do not all contend on
+ * a single lock. Each stripe evicts its own least recently seen fingerprint, which approximates the global
+ * order once there are several stripes.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerFingerprints {
+
+    private static final int MAX_STRIPES = 16;
+
+    /**
+     * Fewest fingerprints of a stripe, so that small bounds are kept in a single exact LRU.
+     */
+    private static final int MIN_STRIPE_SIZE = 64;
+
+    private final Map<Fingerprint, Window>[] stripes;
+    private final int mask;
+    private final int frames;
+    private final long windowNanos;
+    private final LoggerClock clock;
+
+    @SuppressWarnings("unchecked")
+    LoggerFingerprints(LoggerProperties.Errors properties, LoggerClock clock) {
+        this.frames = properties.getFrames();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.clock = clock;
+        int maxFingerprints = properties.getMaxFingerprints();
+        int count = 1;
+        while (count < MAX_STRIPES && (count << 1) * MIN_STRIPE_SIZE <= maxFingerprints) {
+            count <<= 1;
+        }
+        int stripeSize = (maxFingerprints + count - 1) / count;
+        this.stripes = new Map[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new LinkedHashMap<Fingerprint, Window>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Fingerprint, Window> eldest) {
+                    return size() > stripeSize;
+                }
+            };
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Number of times the error was already seen in the current window, 0 when it should be logged with
+     * its stack trace.
+     */
+    long seen(Throwable err) {
+        long now = clock.nanoTime();
+        Fingerprint fingerprint = new Fingerprint(err, frames);
+        Map<Fingerprint, Window> windows = stripes[(fingerprint.hash ^ fingerprint.hash >>> 16) & mask];
+        Window window;
+        // an access ordered map is modified by lookups as well, only errors pay for the lock of their stripe
+        synchronized (windows) {
+            window = windows.get(fingerprint);
+            if (window == null) {
+                windows.put(fingerprint, new Window(now));
+                return 0;
+            }
+        }
+        return window.seen(now, windowNanos);
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<Fingerprint, Window> windows : stripes) {
+            synchronized (windows) {
+                size += windows.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Occurrences of a fingerprint since its stack trace was last logged.
+     */
+    private static final class Window {
+
+        private final AtomicLong start;
+        private final AtomicLong count = new AtomicLong();
+
+        Window(long now) {
+            this.start = new AtomicLong(now);
+        }
+
+        long seen(long now, long windowNanos) {
+            long current = start.get();
+            if (now - current >= windowNanos && start.compareAndSet(current, now)) {
+                count.set(0);
+                return 0;
+            }
+            return count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Exception class along with its top stack frames.
+     */
+    private static final class Fingerprint {
+
+        private final Class<?> type;
+        private final StackTraceElement[] frames;
+        private final int hash;
+
+        Fingerprint(Throwable err, int depth) {
+            StackTraceElement[] trace = err.getStackTrace();
+            this.type = err.getClass();
+            this.frames = trace.length > depth ? Arrays.copyOf(trace, depth) : trace;
+            this.hash = 31 * type.hashCode() + Arrays.hashCode(frames);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return hash == other.hash && type == other.type && Arrays.equals(frames, other.frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records {@link Loggable} invocations as JDK Flight Recorder events.
+ *
+ * The project is built for Java 8, so the event is defined at runtime through the {@code jdk.jfr.EventFactory}
+ * and its methods are bound once into method handles, rather than declared as a subclass of
+ * {@code jdk.jfr.Event}. Its duration and thread are recorded by the flight recorder itself.
+ *
+ * Nothing is allocated while no recording enables the event, and the names of an event are set only
+ * once it is going to be committed.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerFlightRecorder {
+
+    static final String EVENT_CLASS = "jdk.jfr.EventFactory";
+    static final String NAME = "com.github.rozidan.springboot.logger.Invocation";
+
+    private static final int CLASS_NAME = 0;
+    private static final int METHOD_NAME = 1;
+    private static final int OUTCOME = 2;
+    private static final int OVER = 3;
+
+    private final boolean onlyOver;
+
+    private final MethodHandle isEnabled;
+    private final MethodHandle newEvent;
+    private final MethodHandle begin;
+    private final MethodHandle end;
+    private final MethodHandle shouldCommit;
+    private final MethodHandle commit;
+    private final MethodHandle set;
+
+    LoggerFlightRecorder(LoggerProperties.Jfr properties) {
+        this.onlyOver = properties.isOnlyOver();
+        try {
+            ClassLoader loader = LoggerFlightRecorder.class.getClassLoader();
+            Class<?> factoryClass = Class.forName(EVENT_CLASS, true, loader);
+            Class<?> eventClass = Class.forName("jdk.jfr.Event", true, loader);
+            Class<?> typeClass = Class.forName("jdk.jfr.EventType", true, loader);
+            Class<?> elementClass = Class.forName("jdk.jfr.AnnotationElement", true, loader);
+            Class<?> descriptorClass = Class.forName("jdk.jfr.ValueDescriptor", true, loader);
+            Constructor<?> element = elementClass.getConstructor(Class.class, Object.class);
+            Constructor<?> descriptor = descriptorClass.getConstructor(Class.class, String.class, List.class);
+
+            List<Object> annotations = Arrays.asList(
+                    element.newInstance(Class.forName("jdk.jfr.Name", true, loader), NAME),
+                    element.newInstance(Class.forName("jdk.jfr.Label", true, loader), "Loggable Invocation"),
+                    element.newInstance(Class.forName("jdk.jfr.Description", true, loader),
+                            "Invocation of a @Loggable method"),
+                    element.newInstance(Class.forName("jdk.jfr.Category", true, loader),
+                            new String[]{"Spring Boot", "Logger"}),
+                    element.newInstance(Class.forName("jdk.jfr.StackTrace", true, loader), false));
+            // in the order of the field indexes
+            List<Object> fields = Arrays.asList(
+                    descriptor.newInstance(String.class, "className", labeled(element, loader, "Class", null)),
+                    descriptor.newInstance(String.class, "methodName", labeled(element, loader, "Method", null)),
+                    descriptor.newInstance(String.class, "outcome", labeled(element, loader, "Outcome",
+                            "success, or the class name of the thrown exception")),
+                    descriptor.newInstance(boolean.class, "over", labeled(element, loader, "Over warnOver",
+                            "Did the invocation take longer than the warnOver of its method?")));
+            Object factory = factoryClass.getMethod("create", List.class, List.class)
+                    .invoke(null, annotations, fields);
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Object type = factoryClass.getMethod("getEventType").invoke(factory);
+            this.isEnabled = lookup.unreflect(typeClass.getMethod("isEnabled")).bindTo(type)
+                    .asType(MethodType.methodType(boolean.class));
+            this.newEvent = lookup.unreflect(factoryClass.getMethod("newEvent")).bindTo(factory)
+                    .asType(MethodType.methodType(Object.class));
+            this.begin = handle(lookup, eventClass, "begin", void.class);
+            this.end = handle(lookup, eventClass, "end", void.class);
+            this.shouldCommit = handle(lookup, eventClass, "shouldCommit", boolean.class);
+            this.commit = handle(lookup, eventClass, "commit", void.class);
+            this.set = lookup.unreflect(eventClass.getMethod("set", int.class, Object.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not define the " + NAME + " flight recorder event", e);
+        }
+    }
+
+    private static List<Object> labeled(Constructor<?> element, ClassLoader loader, String label,
+                                        String description) throws ReflectiveOperationException {
+        Object labelElement = element.newInstance(Class.forName("jdk.jfr.Label", true, loader), label);
+        if (description == null) {
+            return Collections.singletonList(labelElement);
+        }
+        return Arrays.asList(labelElement,
+                element.newInstance(Class.forName("jdk.jfr.Description", true, loader), description));
+    }
+
+    private static MethodHandle handle(MethodHandles.Lookup lookup, Class<?> eventClass, String name,
+                                       Class<?> returnType) throws ReflectiveOperationException {
+        return lookup.unreflect(eventClass.getMethod(name))
+                .asType(MethodType.methodType(returnType, Object.class));
+    }
+
+    /**
+     * Starts the event of an invocation, null when the event is not enabled.
+     */
+    Object begin() {
+        try {
+            if (!(boolean) isEnabled.invokeExact()) {
+                return null;
+            }
+            Object event = (Object) newEvent.invokeExact();
+            begin.invokeExact(event);
+            return event;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Commits the event of a completed invocation.
+     */
+    void commit(Object event, LoggerPlan plan, long nano, Throwable err) {
+        try {
+            end.invokeExact(event);
+            boolean over = plan.isOver(nano);
+            if ((over || !onlyOver) && (boolean) shouldCommit.invokeExact(event)) {
+                set.invokeExact(event, CLASS_NAME, (Object) plan.getMethod().getDeclaringClass().getName());
+                set.invokeExact(event, METHOD_NAME, (Object) plan.getMethod().getName());
+                String outcome = err == null ? LoggerMetrics.SUCCESS : err.getClass().getName();
+                set.invokeExact(event, OUTCOME, (Object) outcome);
+                set.invokeExact(event, OVER, (Object) over);
+                commit.invokeExact(event);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Build time index of the types declaring {@link Loggable} methods, generated by the
+ * {@link LoggerAdapterProcessor} into META-INF/loggable.index, one binary class name per line.
+ *
+ * A class is a candidate when it, or one of its super classes, is listed. Resolved once per class.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerIndex {
+
+    static final String LOCATION = "META-INF/loggable.index";
+
+    private final Set<String> types;
+
+    private final ClassValue<Boolean> candidates = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null && current != Object.class;
+                 current = current.getSuperclass()) {
+                if (types.contains(current.getName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    LoggerIndex(Set<String> types) {
+        this.types = types;
+    }
+
+    /**
+     * Loads the index files of the given class loader, null when there are none.
+     */
+    static LoggerIndex load(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            Set<String> types = new HashSet<>();
+            while (urls.hasMoreElements()) {
+                read(urls.nextElement(), types);
+            }
+            return new LoggerIndex(Collections.unmodifiableSet(types));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load " + LOCATION, e);
+        }
+    }
+
+    private static void read(URL url, Set<String> types) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    types.add(line);
+                }
+            }
+        }
+    }
+
+    boolean isCandidate(Class<?> type) {
+        return candidates.get(type);
+    }
+}
@@ -15,23 +15,27 @@
  */
 package com.github.rozidan.springboot.logger;
 
-import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PostConstruct;
-import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
+import javax.annotation.PreDestroy;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 /**
  * AspectJ to intercept {@link Loggable} methods or classes.
@@ -42,34 +46,170 @@ import org.springframework.stereotype.Component;
 @Component
 public class LoggerInterceptor {
 
+    private static final String MDC_CLASS = "logger.class";
+    private static final String MDC_METHOD = "logger.method";
+    private static final String MDC_EVENT = "logger.event";
+    private static final String MDC_DURATION = "logger.durationNanos";
+    private static final String MDC_OUTCOME = "logger.outcome";
+
     private Logger logger;
 
     private LoggerMsgArgsGenerator lmag;
+    private LoggerJsonEncoder json;
 
-    private Set<WarnPoint> warnPoints;
-    private ScheduledExecutorService warnService;
+    private LoggerPlanCache plans;
+    private LoggerMetrics metrics;
+    private LoggerOverrides overrides;
+
+    private LoggerProperties properties;
+
+    private ThreadFactory threadFactory;
+    private LoggerClock clock = LoggerClock.SYSTEM;
+    private LoggerWarnTimer warnTimer;
+    private LoggerAsyncDispatcher dispatcher;
+    private LoggerFingerprints fingerprints;
+    private ThreadLocal<LoggerCallTree> trees;
+    private ThreadLocal<LoggerBlackBox> boxes;
+    private LoggerFlightRecorder recorder;
+    private boolean silent;
 
-    @Autowired
     public LoggerInterceptor(Logger logger) {
+        this(logger, new LoggerProperties());
+    }
+
+    @Autowired
+    public LoggerInterceptor(Logger logger, LoggerProperties properties) {
         this.lmag = new LoggerMsgArgsGenerator();
+        this.json = new LoggerJsonEncoder(new LoggerArgsRenderer());
+        this.overrides = new LoggerOverrides(properties.getOverrides());
+        this.plans = new LoggerPlanCache(properties, null, overrides);
         this.logger = logger;
+        this.properties = properties;
+        LoggerProperties.Profile profile = properties.getProfile();
+        if (profile.isEnabled()) {
+            this.trees = ThreadLocal.withInitial(() -> new LoggerCallTree(profile.getMaxNodes(), profile.getMaxDepth()));
+        }
+        LoggerProperties.BlackBox blackBox = properties.getBlackBox();
+        if (blackBox.isEnabled()) {
+            this.boxes = ThreadLocal.withInitial(() -> new LoggerBlackBox(blackBox.getSize()));
+        }
+        LoggerProperties.Jfr jfr = properties.getJfr();
+        if (jfr.isEnabled()) {
+            if (ClassUtils.isPresent(LoggerFlightRecorder.EVENT_CLASS, getClass().getClassLoader())) {
+                this.recorder = new LoggerFlightRecorder(jfr);
+                this.silent = !jfr.isLog();
+            } else {
+                LoggerFactory.getLogger(LoggerInterceptor.class)
+                        .warn("JDK Flight Recorder is not available, no events are recorded");
+            }
+        }
+    }
+
+    /**
+     * Sets the thread factory of the warnOver watchdog and of the asynchronous consumers,
+     * must be called before the interceptor is constructed.
+     */
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Sets the time source of the measured durations,
+     * must be called before the interceptor is constructed.
+     */
+    public void setClock(LoggerClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Publishes the duration of intercepted methods into Micrometer timers,
+     * must be called before the interceptor is constructed.
+     */
+    void setMetrics(LoggerMetrics metrics) {
+        this.metrics = metrics;
+        this.plans = new LoggerPlanCache(properties, metrics, overrides);
+    }
+
+    /**
+     * Sets the runtime overrides of the Loggable attributes, shared with the actuator endpoint,
+     * must be called before the interceptor is constructed.
+     */
+    void setOverrides(LoggerOverrides overrides) {
+        this.overrides = overrides;
+        this.plans = new LoggerPlanCache(properties, metrics, overrides);
+    }
+
+    /**
+     * Sets the type specific renderers of arguments and results,
+     * must be called before the interceptor is constructed.
+     */
+    void setRenderers(List<ArgumentRenderer<?>> renderers) {
+        LoggerArgsRenderer renderer = new LoggerArgsRenderer(LoggerRenderers.of(renderers));
+        this.lmag = new LoggerMsgArgsGenerator(renderer);
+        this.json = new LoggerJsonEncoder(renderer);
     }
 
     @PostConstruct
     protected void construct() {
-        warnPoints = new ConcurrentSkipListSet<>();
-        warnService = Executors.newSingleThreadScheduledExecutor();
-        warnService.scheduleAtFixedRate(() -> {
-            for (WarnPoint wp : warnPoints) {
-                long duration = System.nanoTime() - wp.getStart();
-                if (isOver(duration, wp.getLoggable())) {
-                    log(LogLevel.WARN, "#{}({}): in {} and still running (max {})",
-                            wp.getPoint(), wp.getLoggable(),
-                            lmag.warnBefore(wp.getPoint(), wp.getLoggable(), duration));
-                    warnPoints.remove(wp);
+        LoggerProperties.Warn warn = properties.getWarn();
+        warnTimer = new LoggerWarnTimer(
+                threadFactory != null ? threadFactory : defaultThreadFactory("logger-warn", warn.isDaemon()),
+                warn.getTickDuration().toNanos(), TimeUnit.NANOSECONDS, warn.getTicksPerWheel());
+        scheduleSuppressedReport();
+        scheduleRollupReport();
+        if (properties.getErrors().isDeduplicate()) {
+            fingerprints = new LoggerFingerprints(properties.getErrors(), clock);
+        }
+        if (properties.getAsync().isEnabled()) {
+            dispatcher = new LoggerAsyncDispatcher(properties.getAsync(),
+                    threadFactory != null ? threadFactory : defaultThreadFactory("logger-async", true),
+                    this::write);
+        }
+    }
+
+    @PreDestroy
+    protected void destroy() {
+        warnTimer.stop();
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        plans.clear();
+    }
+
+    private void scheduleSuppressedReport() {
+        Duration interval = properties.getSampling().getReportInterval();
+        String period = LoggerDurations.format(interval.toNanos());
+        warnTimer.schedule(timeout -> {
+            plans.forEach(plan -> {
+                long suppressed = plan.getSampler() != null ? plan.getSampler().drainSuppressed() : 0;
+                if (suppressed > 0 && isEnabled(plan.getLevel(), plan)) {
+                    log(plan.getLevel(), plan, plan.getSuppressedMessage(), suppressed, period);
                 }
-            }
-        }, 1L, 1L, TimeUnit.SECONDS);
+            });
+            scheduleSuppressedReport();
+        }, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void scheduleRollupReport() {
+        Duration interval = properties.getRollup().getInterval();
+        String period = LoggerDurations.format(interval.toNanos());
+        warnTimer.schedule(timeout -> {
+            plans.forEach(plan -> {
+                LoggerRollup.Summary summary = plan.isRollup() ? plan.getRollup().drain() : null;
+                if (summary != null && isEnabled(plan.getLevel(), plan)) {
+                    log(plan.getLevel(), plan, plan.getRollupMessage(), lmag.rollup(plan, summary, period));
+                }
+            });
+            scheduleRollupReport();
+        }, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static ThreadFactory defaultThreadFactory(String name, boolean daemon) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(daemon);
+            return thread;
+        };
     }
 
     @Pointcut("execution(public * *(..))"
@@ -99,105 +239,382 @@ public class LoggerInterceptor {
     }
 
     public Object logMethod(ProceedingJoinPoint joinPoint, Loggable loggable) throws Throwable {
-        long start = System.nanoTime();
+        long start = clock.nanoTime();
+        LoggerPlan plan = plans.get(joinPoint, loggable);
+        LoggerCallTree tree = trees != null ? trees.get() : null;
+        LoggerBlackBox box = boxes != null ? boxes.get() : null;
         WarnPoint warnPoint = null;
+        Object flight = null;
         Object returnVal;
 
-        if (isLevelEnabled(joinPoint, loggable) && loggable.warnOver() >= 0) {
-            warnPoint = new WarnPoint(joinPoint, loggable, start);
-            warnPoints.add(warnPoint);
-        }
+        // everything entered, opened or scheduled here is balanced by the finally block, whatever is thrown
+        try {
+            // an asynchronous execution is part of the call tree until its method returns
+            if (tree != null) {
+                tree.enter(plan, start);
+            }
+            if (box != null) {
+                box.open();
+            }
 
-        if (loggable.entered()) {
-            log(loggable.value(), "#{}({}): entered", joinPoint,
-                    loggable, lmag.enter(joinPoint, loggable));
-        }
+            // reactive executions are watched and recorded once subscribed
+            if (!plan.isReactive()) {
+                warnPoint = watch(joinPoint, plan, start);
+                flight = recorder != null ? recorder.begin() : null;
+            }
 
-        try {
-            returnVal = joinPoint.proceed();
+            // conditioned and sampled once per invocation, before anything is rendered,
+            // rolled up invocations are never logged
+            boolean sampled = !silent && box == null && !plan.isRollup() && isEnabled(plan.getLevel(), plan)
+                    && plan.matches(joinPoint.getArgs()) && plan.isSampled();
 
-            long nano = System.nanoTime() - start;
-            if (isOver(nano, loggable)) {
-                log(LogLevel.WARN, "#{}({}): {} in {} (max {})",
-                        joinPoint, loggable, lmag.warnAfter(joinPoint, loggable, returnVal, nano));
-            } else {
-                log(loggable.value(), "#{}({}): {} in {}", joinPoint, loggable,
-                        lmag.after(joinPoint, loggable, returnVal, nano));
+            if (plan.isEntered() && sampled) {
+                emit(LoggerEvent.Type.ENTERED, plan.getLevel(), plan, joinPoint.getArgs(), null, 0, null);
+            } else if (plan.isEntered() && box != null && !plan.isRollup()) {
+                box.record(LoggerEvent.Type.ENTERED, plan, joinPoint.getArgs(), null, 0);
             }
-            return returnVal;
-        } catch (Throwable ex) {
-            if (contains(loggable.ignore(), ex)) {
-                log(LogLevel.ERROR, "#{}({}): thrown {}({}) from {}[{}] in {}",
-                        joinPoint, loggable, lmag.error(joinPoint, loggable, System.nanoTime() - start, ex));
-            } else {
-                log(LogLevel.ERROR, "#{}({}): thrown {}({}) from {}[{}] in {}",
-                        joinPoint, loggable, lmag.errorWithException(joinPoint, loggable, System.nanoTime() - start, ex));
+
+            try {
+                returnVal = joinPoint.proceed();
+            } catch (Throwable ex) {
+                thrown(joinPoint, plan, ex, clock.nanoTime() - start, flight, box);
+                throw ex;
+            }
+
+            if (returnVal != null && plan.getReturns() == LoggerPlan.Returns.STAGE) {
+                Completion completion = new Completion(joinPoint, plan, sampled, box);
+                completion.start(start, warnPoint, flight);
+                warnPoint = null;
+                ((CompletionStage<?>) returnVal).whenComplete(completion::complete);
+                return returnVal;
+            }
+            if (returnVal != null && plan.isReactive()) {
+                return LoggerReactiveSupport.decorate(plan, returnVal, () -> new Completion(joinPoint, plan, sampled, box));
             }
-            throw ex;
+
+            returned(joinPoint, plan, returnVal, clock.nanoTime() - start, sampled, flight, box);
+            return returnVal;
         } finally {
             if (warnPoint != null) {
-                warnPoints.remove(warnPoint);
+                warnPoint.cancel();
+            }
+            if (tree != null) {
+                profiled(tree);
+            }
+            if (box != null) {
+                box.close();
             }
         }
     }
 
-    private void log(LogLevel level, String message, ProceedingJoinPoint joinPoint, Loggable loggable, Object... args) {
-        if (loggable.name().isEmpty()) {
-            logger.log(level, ((MethodSignature) joinPoint.getSignature()).getMethod().getDeclaringClass(), message, args);
-        } else {
-            logger.log(level, loggable.name(), message, args);
+    private void profiled(LoggerCallTree tree) {
+        long total = tree.exit(clock.nanoTime());
+        if (total < 0) {
+            return;
+        }
+        LoggerPlan root = tree.root();
+        LoggerProperties.Profile profile = properties.getProfile();
+        String calls = null;
+        try {
+            if (total >= profile.getThreshold().toNanos() && isEnabled(root.getLevel(), root)) {
+                calls = tree.render(profile.getTop());
+            }
+        } finally {
+            // cleared before logging, which may enter Loggable methods by itself
+            tree.clear();
+        }
+        if (calls != null) {
+            log(root.getLevel(), root, root.getProfileMessage(), LoggerDurations.format(total), calls);
         }
     }
 
-    private boolean isLevelEnabled(ProceedingJoinPoint joinPoint, Loggable loggable) {
-        return loggable.name().isEmpty()
-                ? logger.isEnabled(LogLevel.WARN,
-                ((MethodSignature) joinPoint.getSignature()).getMethod().getDeclaringClass())
-                : logger.isEnabled(LogLevel.WARN, loggable.name());
+    private WarnPoint watch(ProceedingJoinPoint joinPoint, LoggerPlan plan, long start) {
+        if (!silent && plan.isWarnEnabled() && isEnabled(LogLevel.WARN, plan)) {
+            WarnPoint warnPoint = new WarnPoint(joinPoint, plan, start, Thread.currentThread());
+            warnPoint.schedule(plan.getWarnOverNanos());
+            return warnPoint;
+        }
+        return null;
     }
 
-    private boolean isOver(long nano, Loggable loggable) {
-        return loggable.warnOver() >= 0
-                && TimeUnit.NANOSECONDS.toMillis(nano) > loggable.warnUnit().toMillis(loggable.warnOver());
+    private void returned(ProceedingJoinPoint joinPoint, LoggerPlan plan, Object result, long nano, boolean sampled,
+                          Object flight, LoggerBlackBox box) {
+        if (flight != null) {
+            recorder.commit(flight, plan, nano, null);
+        }
+        if (plan.getTimers() != null) {
+            plan.getTimers().record(nano);
+        }
+        if (plan.isRollup() && isEnabled(plan.getLevel(), plan)) {
+            plan.getRollup().record(nano, joinPoint);
+        }
+        if (plan.isOver(nano)) {
+            if (isEnabled(LogLevel.WARN, plan)) {
+                flush(LogLevel.WARN, box);
+                emit(LoggerEvent.Type.RETURNED_OVER, LogLevel.WARN, plan, joinPoint.getArgs(), result, nano, null);
+            }
+        } else if (sampled && plan.matchesResult(joinPoint.getArgs(), result)) {
+            emit(LoggerEvent.Type.RETURNED, plan.getLevel(), plan, joinPoint.getArgs(), result, nano, null);
+        } else if (box != null && !plan.isRollup()) {
+            box.record(LoggerEvent.Type.RETURNED, plan, joinPoint.getArgs(), result, nano);
+        }
     }
 
-    private boolean contains(Class<? extends Throwable>[] array, Throwable exp) {
-        boolean contains = false;
-        for (final Class<? extends Throwable> type : array) {
-            if (instanceOf(exp.getClass(), type)) {
-                contains = true;
+    private void thrown(ProceedingJoinPoint joinPoint, LoggerPlan plan, Throwable ex, long nano,
+                        Object flight, LoggerBlackBox box) {
+        if (flight != null) {
+            recorder.commit(flight, plan, nano, ex);
+        }
+        if (plan.getTimers() != null) {
+            plan.getTimers().record(nano, ex);
+        }
+        if (plan.isRollup() && isEnabled(plan.getLevel(), plan)) {
+            plan.getRollup().record(nano, joinPoint, ex);
+        }
+        if (isEnabled(LogLevel.ERROR, plan)) {
+            flush(LogLevel.ERROR, box);
+            emit(LoggerEvent.Type.THROWN, LogLevel.ERROR, plan, joinPoint.getArgs(), null, nano, ex);
+        }
+    }
+
+    /**
+     * Logs the invocations kept by the black box captured by the invocation, at the level of the error or
+     * warnOver breach that triggered it.
+     */
+    private void flush(LogLevel level, LoggerBlackBox box) {
+        if (box != null) {
+            box.flush(event -> emit(event.getType(), level, event.getPlan(),
+                    event.getArgs(), event.getResult(), event.getNano(), null));
+        }
+    }
+
+    /**
+     * Number of log events dropped because the asynchronous buffer was full.
+     */
+    public long getDroppedEvents() {
+        return dispatcher != null ? dispatcher.getDropped() : 0;
+    }
+
+    private void emit(LoggerEvent.Type type, LogLevel level, LoggerPlan plan,
+                      Object[] args, Object result, long nano, Throwable err) {
+        emit(type, level, plan, args, result, nano, err, null);
+    }
+
+    private void emit(LoggerEvent.Type type, LogLevel level, LoggerPlan plan,
+                      Object[] args, Object result, long nano, Throwable err, LoggerThreadSnapshot snapshot) {
+        if (silent) {
+            return;
+        }
+        if (dispatcher == null || !dispatcher.publish(type, level, plan, args, result, nano, err, snapshot)) {
+            write(type, level, plan, args, result, nano, err, snapshot);
+        }
+    }
+
+    private void write(LoggerEvent event) {
+        write(event.getType(), event.getLevel(), event.getPlan(),
+                event.getArgs(), event.getResult(), event.getNano(), event.getErr(), event.getSnapshot());
+    }
+
+    private void write(LoggerEvent.Type type, LogLevel level, LoggerPlan plan,
+                       Object[] args, Object result, long nano, Throwable err, LoggerThreadSnapshot snapshot) {
+        long seen = 0;
+        boolean trace = false;
+        if (type == LoggerEvent.Type.THROWN && !plan.isIgnored(err)) {
+            seen = fingerprints != null ? fingerprints.seen(err) : 0;
+            trace = seen == 0;
+        }
+        switch (properties.getFormat()) {
+            case JSON:
+                Object encoded = json.encode(type, plan, args, result, nano, err, seen, snapshot);
+                if (trace) {
+                    log(level, plan, "{}", encoded, err);
+                } else {
+                    log(level, plan, "{}", encoded);
+                }
+                break;
+            case MDC:
+                putMdc(type, plan, nano, err);
+                try {
+                    writeText(type, level, plan, args, result, nano, err, snapshot, trace, seen);
+                } finally {
+                    removeMdc();
+                }
+                break;
+            default:
+                writeText(type, level, plan, args, result, nano, err, snapshot, trace, seen);
                 break;
-            }
         }
-        return contains;
     }
 
-    private boolean instanceOf(Class<?> child, Class<?> parent) {
-        boolean instance = child.equals(parent)
-                || child.getSuperclass() != null && instanceOf(child.getSuperclass(), parent);
-        if (!instance) {
-            for (final Class<?> iface : child.getInterfaces()) {
-                instance = instanceOf(iface, parent);
-                if (instance) {
-                    break;
+    private void writeText(LoggerEvent.Type type, LogLevel level, LoggerPlan plan, Object[] args, Object result,
+                           long nano, Throwable err, LoggerThreadSnapshot snapshot, boolean trace, long seen) {
+        switch (type) {
+            case ENTERED:
+                log(level, plan, plan.getEnterMessage(), lmag.enter(plan, args));
+                break;
+            case RETURNED:
+                log(level, plan, plan.getAfterMessage(), lmag.after(plan, args, result, nano));
+                break;
+            case RETURNED_OVER:
+                log(level, plan, plan.getWarnAfterMessage(), lmag.warnAfter(plan, args, result, nano));
+                break;
+            case RUNNING:
+                log(level, plan, plan.getWarnBeforeMessage(), lmag.warnBefore(plan, args, nano, snapshot));
+                break;
+            case THROWN:
+                if (seen > 0) {
+                    log(level, plan, plan.getRepeatedErrorMessage(), lmag.errorRepeated(plan, args, nano, err, seen));
+                } else if (trace) {
+                    log(level, plan, plan.getErrorMessage(), lmag.errorWithException(plan, args, nano, err));
+                } else {
+                    log(level, plan, plan.getErrorMessage(), lmag.error(plan, args, nano, err));
                 }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void putMdc(LoggerEvent.Type type, LoggerPlan plan, long nano, Throwable err) {
+        MDC.put(MDC_CLASS, plan.getMethod().getDeclaringClass().getName());
+        MDC.put(MDC_METHOD, plan.getMethod().getName());
+        MDC.put(MDC_EVENT, type.getKey());
+        if (type != LoggerEvent.Type.ENTERED) {
+            MDC.put(MDC_DURATION, Long.toString(nano));
+        }
+        if (type == LoggerEvent.Type.THROWN) {
+            MDC.put(MDC_OUTCOME, err.getClass().getName());
+        } else if (type == LoggerEvent.Type.RETURNED || type == LoggerEvent.Type.RETURNED_OVER) {
+            MDC.put(MDC_OUTCOME, LoggerMetrics.SUCCESS);
+        }
+    }
+
+    private static void removeMdc() {
+        MDC.remove(MDC_CLASS);
+        MDC.remove(MDC_METHOD);
+        MDC.remove(MDC_EVENT);
+        MDC.remove(MDC_DURATION);
+        MDC.remove(MDC_OUTCOME);
+    }
+
+    private void log(LogLevel level, LoggerPlan plan, String message, Object... args) {
+        logger.log(plan.getLog(), level, message, args);
+    }
+
+    private boolean isEnabled(LogLevel level, LoggerPlan plan) {
+        return logger.isEnabled(plan.getLog(), level);
+    }
+
+    /**
+     * Completion of an asynchronous execution, a {@link CompletionStage}, a Mono or a Flux.
+     *
+     * Duration, result and error are taken once the work completes rather than when the method returns.
+     */
+    @RequiredArgsConstructor
+    protected class Completion {
+
+        private final ProceedingJoinPoint point;
+        private final LoggerPlan plan;
+        private final boolean sampled;
+        private final LoggerBlackBox box;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+        private long start;
+        private WarnPoint warnPoint;
+        private Object flight;
+
+        /**
+         * Starts the clock of a reactive execution, once subscribed.
+         */
+        void start() {
+            long now = clock.nanoTime();
+            start(now, watch(point, plan, now), recorder != null ? recorder.begin() : null);
+        }
+
+        void start(long start, WarnPoint warnPoint, Object flight) {
+            this.start = start;
+            this.warnPoint = warnPoint;
+            this.flight = flight;
+        }
+
+        void complete(Object result, Throwable err) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            long nano = clock.nanoTime() - start;
+            stopWatch();
+            if (err == null) {
+                returned(point, plan, result, nano, sampled, flight, box);
+            } else {
+                thrown(point, plan, err instanceof CompletionException && err.getCause() != null
+                        ? err.getCause() : err, nano, flight, box);
+            }
+        }
+
+        /**
+         * The subscriber is no longer interested, nothing is logged.
+         */
+        void cancel() {
+            if (done.compareAndSet(false, true)) {
+                stopWatch();
+            }
+        }
+
+        private void stopWatch() {
+            if (warnPoint != null) {
+                warnPoint.cancel();
             }
         }
-        return instance;
     }
 
-    @EqualsAndHashCode(of = "point")
-    @AllArgsConstructor
+    /**
+     * In-flight execution watched by the warnOver timer.
+     */
+    @RequiredArgsConstructor
     @Getter
-    protected static class WarnPoint implements Comparable<WarnPoint> {
+    protected class WarnPoint implements LoggerWarnTimer.Task {
 
-        private ProceedingJoinPoint point;
-        private Loggable loggable;
-        private long start;
+        private final ProceedingJoinPoint point;
+        private final LoggerPlan plan;
+        private final long start;
+        private final Thread thread;
+
+        private volatile LoggerWarnTimer.Timeout timeout;
+        private volatile boolean done;
+        private long delay;
+        private int warnings;
+
+        void schedule(long nano) {
+            delay = nano;
+            timeout = warnTimer.schedule(this, nano, TimeUnit.NANOSECONDS);
+            // the execution may have completed while the timeout was replaced
+            if (done) {
+                timeout.cancel();
+            }
+        }
+
+        void cancel() {
+            done = true;
+            LoggerWarnTimer.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
 
         @Override
-        public int compareTo(WarnPoint obj) {
-            return Long.compare(obj.getStart(), start);
+        public void run(LoggerWarnTimer.Timeout expired) {
+            if (done) {
+                return;
+            }
+            long duration = clock.nanoTime() - start;
+            LoggerProperties.Warn warn = properties.getWarn();
+            // captured now, while the execution is still stuck
+            LoggerThreadSnapshot snapshot = warn.getStackDepth() > 0
+                    ? LoggerThreadSnapshot.capture(thread, warn.getStackDepth()) : null;
+            emit(LoggerEvent.Type.RUNNING, LogLevel.WARN, plan, point.getArgs(), null, duration, null, snapshot);
+            if (++warnings < warn.getMaxWarnings()) {
+                schedule((long) (delay * warn.getBackoffMultiplier()));
+            }
         }
     }
 
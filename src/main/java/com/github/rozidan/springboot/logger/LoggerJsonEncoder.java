@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Encodes the events of intercepted methods as single line JSON objects.
+ *
+ * The JSON is written straight into the per thread buffer of the {@link LoggerArgsRenderer}, only when
+ * the logging backend formats the message, e.g.
+ * {"event":"returned","class":"a.b.Service","method":"find","args":["id",1],"result":null,
+ * "durationNanos":1250,"outcome":"success"}
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerJsonEncoder {
+
+    private final LoggerArgsRenderer renderer;
+
+    LoggerJsonEncoder(LoggerArgsRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Returns the event, encoded when rendered.
+     */
+    Object encode(LoggerEvent.Type type, LoggerPlan plan, Object[] args, Object result, long nano,
+                  Throwable err, long seen, LoggerThreadSnapshot snapshot) {
+        return new Encoded(type, plan, args, result, nano, err, seen, snapshot);
+    }
+
+    private void write(StringBuilder bldr, Encoded event) {
+        LoggerPlan plan = event.plan;
+        bldr.append("{\"event\":\"").append(event.type.getKey()).append("\",").append(plan.getJsonFields());
+        if (!plan.isSkipArgs()) {
+            bldr.append(",\"args\":");
+            renderer.appendJsonArgs(bldr, event.args, plan.getLimits());
+        }
+        if (event.type == LoggerEvent.Type.ENTERED) {
+            bldr.append('}');
+            return;
+        }
+        if ((event.type == LoggerEvent.Type.RETURNED || event.type == LoggerEvent.Type.RETURNED_OVER)
+                && !plan.isSkipResult()) {
+            bldr.append(",\"result\":");
+            renderer.appendJson(bldr, event.result, plan.getLimits());
+        }
+        bldr.append(",\"durationNanos\":").append(event.nano);
+        if (event.type == LoggerEvent.Type.RETURNED_OVER || event.type == LoggerEvent.Type.RUNNING) {
+            bldr.append(",\"warnOverNanos\":").append(plan.getWarnOverNanos());
+        }
+        if (event.type == LoggerEvent.Type.THROWN) {
+            bldr.append(",\"outcome\":");
+            LoggerArgsRenderer.appendJsonString(bldr, event.err.getClass().getName());
+            bldr.append(",\"exception\":");
+            if (event.err.getMessage() != null) {
+                LoggerArgsRenderer.appendJsonString(bldr, event.err.getMessage());
+            } else {
+                bldr.append("null");
+            }
+            if (event.seen > 0) {
+                bldr.append(",\"seen\":").append(event.seen);
+            }
+        } else if (event.type == LoggerEvent.Type.RUNNING) {
+            if (event.snapshot != null) {
+                bldr.append(",\"thread\":");
+                LoggerArgsRenderer.appendJsonString(bldr, event.snapshot.describe());
+            }
+        } else {
+            bldr.append(",\"outcome\":\"").append(LoggerMetrics.SUCCESS).append('"');
+        }
+        bldr.append('}');
+    }
+
+    /**
+     * Encodes an event only when the logging backend formats the message.
+     */
+    @AllArgsConstructor
+    private final class Encoded {
+        private final LoggerEvent.Type type;
+        private final LoggerPlan plan;
+        private final Object[] args;
+        private final Object result;
+        private final long nano;
+        private final Throwable err;
+        private final long seen;
+        private final LoggerThreadSnapshot snapshot;
+
+        @Override
+        public String toString() {
+            return renderer.render(bldr -> write(bldr, this));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * Precompiled masking of a {@link Loggable} method.
+ *
+ * The {@link Masked} parameters, the {@link Loggable#mask()} entries and the
+ * {@code logger.render.mask-patterns} are resolved once into the indexes of the masked arguments, so an
+ * argument is masked by an array lookup. The name patterns also mask the values of the matching map keys,
+ * but not the fields of other objects.
+ *
+ * Masking fails closed, when the parameter names of a method are not available, every argument of the
+ * method is masked rather than the name patterns being ignored. An index out of the parameters of the method
+ * fails the plan of the method, whether it is built on startup or on its first invocation.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerMask {
+
+    static final String MASKED = "****";
+
+    /**
+     * A method declares at most 255 parameters, a longer index is a typo rather than a parameter.
+     */
+    private static final int MAX_INDEX_LENGTH = 3;
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final boolean[] params;
+    private final String[] keys;
+
+    private LoggerMask(boolean[] params, String[] keys) {
+        this.params = params;
+        this.keys = keys;
+    }
+
+    /**
+     * Compiles the masking of the given method, null when nothing is masked.
+     *
+     * @throws IllegalStateException when an index entry is out of the parameters of the method
+     */
+    static LoggerMask of(Method method, String[] mask, String[] defaults) {
+        Set<String> patterns = new LinkedHashSet<>(Arrays.asList(defaults));
+        boolean[] params = new boolean[method.getParameterCount()];
+        boolean masked = false;
+        for (String entry : mask) {
+            if (isIndex(entry)) {
+                params[index(method, entry)] = true;
+                masked = true;
+            } else {
+                patterns.add(entry);
+            }
+        }
+        String[] keys = patterns.toArray(new String[0]);
+        String[] names = keys.length > 0 ? PARAMETER_NAMES.getParameterNames(method) : null;
+        // the arguments that may be sensitive are all masked rather than the names being ignored
+        boolean all = keys.length > 0 && names == null;
+        if (all && params.length > 0) {
+            LoggerFactory.getLogger(LoggerMask.class).warn("The parameter names of {} are not available, "
+                    + "all of its arguments are masked, compile it with -parameters", method);
+        }
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < params.length; i++) {
+            if (all || parameters[i].isAnnotationPresent(Masked.class)
+                    || names != null && PatternMatchUtils.simpleMatch(keys, names[i])) {
+                params[i] = true;
+            }
+            masked |= params[i];
+        }
+        if (!masked && keys.length == 0) {
+            return null;
+        }
+        return new LoggerMask(masked ? params : null, keys.length > 0 ? keys : null);
+    }
+
+    /**
+     * Fails when a mask entry of the given method is invalid, so that it is reported on startup rather
+     * than on the first invocation.
+     *
+     * @throws IllegalStateException when an index entry is out of the parameters of the method
+     */
+    static void validate(Method method, Loggable loggable) {
+        for (String entry : loggable.mask()) {
+            if (isIndex(entry)) {
+                index(method, entry);
+            }
+        }
+    }
+
+    private static int index(Method method, String entry) {
+        int index = entry.length() > MAX_INDEX_LENGTH ? -1 : Integer.parseInt(entry);
+        if (index < 0 || index >= method.getParameterCount()) {
+            throw new IllegalStateException("Invalid mask index '" + entry + "' of " + method + ", which declares "
+                    + method.getParameterCount() + " parameters");
+        }
+        return index;
+    }
+
+    /**
+     * Whether the argument of the given index is masked.
+     */
+    boolean param(int index) {
+        return params != null && index < params.length && params[index];
+    }
+
+    /**
+     * Whether the values of some map keys are masked.
+     */
+    boolean hasKeys() {
+        return keys != null;
+    }
+
+    /**
+     * Whether the value of the given map key is masked.
+     */
+    boolean key(Object key) {
+        return keys != null && key instanceof String && PatternMatchUtils.simpleMatch(keys, (String) key);
+    }
+
+    private static boolean isIndex(String entry) {
+        if (entry.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < entry.length(); i++) {
+            if (!Character.isDigit(entry.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
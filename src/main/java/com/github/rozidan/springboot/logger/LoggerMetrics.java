@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the duration of {@link Loggable} methods into Micrometer timers.
+ *
+ * The timers of a method are registered once, when its {@link LoggerPlan} is built, so an invocation
+ * is recorded without any registry lookup.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerMetrics {
+
+    /**
+     * Outcome of a returned invocation, shared by the log events and the flight recorder events.
+     * Failures are told apart by the full class name of their exception.
+     */
+    static final String SUCCESS = "success";
+
+    private final Supplier<MeterRegistry> registry;
+    private final LoggerProperties.Metrics properties;
+
+    LoggerMetrics(Supplier<MeterRegistry> registry, LoggerProperties.Metrics properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    /**
+     * Registers the timers of the given method, null when there is no registry.
+     */
+    Timers timers(Method method) {
+        MeterRegistry meterRegistry = registry.get();
+        return meterRegistry != null ? new Timers(meterRegistry, method) : null;
+    }
+
+    /**
+     * Timers of a single method, one per outcome.
+     */
+    final class Timers {
+
+        private final MeterRegistry meterRegistry;
+        private final String className;
+        private final String methodName;
+        private final Timer success;
+        private final ConcurrentMap<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        private Timers(MeterRegistry meterRegistry, Method method) {
+            this.meterRegistry = meterRegistry;
+            this.className = method.getDeclaringClass().getName();
+            this.methodName = method.getName();
+            this.success = register(SUCCESS);
+        }
+
+        void record(long nano) {
+            success.record(nano, TimeUnit.NANOSECONDS);
+        }
+
+        void record(long nano, Throwable err) {
+            Timer timer = failures.get(err.getClass());
+            if (timer == null) {
+                timer = failures.computeIfAbsent(err.getClass(), type -> register(type.getName()));
+            }
+            timer.record(nano, TimeUnit.NANOSECONDS);
+        }
+
+        private Timer register(String outcome) {
+            Timer.Builder builder = Timer.builder(properties.getName())
+                    .description("Duration of @Loggable methods")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram(properties.isHistogram());
+            if (properties.getPercentiles() != null && properties.getPercentiles().length > 0) {
+                builder.publishPercentiles(properties.getPercentiles());
+            }
+            return builder.register(meterRegistry);
+        }
+    }
+}
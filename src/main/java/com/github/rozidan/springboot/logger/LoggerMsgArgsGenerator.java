@@ -15,65 +15,70 @@
  */
 package com.github.rozidan.springboot.logger;
 
-import java.time.Duration;
-import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
-import lombok.NoArgsConstructor;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.reflect.MethodSignature;
+import lombok.AllArgsConstructor;
 
 /**
  * Helper class for log message format.
  *
  * @author Idan
  */
-@NoArgsConstructor
 final class LoggerMsgArgsGenerator {
 
-    public Object[] enter(ProceedingJoinPoint joinPoint, Loggable loggable) {
-        return new Object[]{methodName(joinPoint), methodArgs(joinPoint, loggable)};
+    private static final String SKIPPED = "..";
+
+    private final LoggerArgsRenderer renderer;
+
+    LoggerMsgArgsGenerator() {
+        this(new LoggerArgsRenderer());
+    }
+
+    LoggerMsgArgsGenerator(LoggerArgsRenderer renderer) {
+        this.renderer = renderer;
     }
 
-    public Object[] warnBefore(ProceedingJoinPoint joinPoint, Loggable loggable, long nano) {
-        return new Object[]{methodName(joinPoint), methodArgs(joinPoint, loggable),
-                durationString(nano), warnDuration(loggable)};
+    public Object[] enter(LoggerPlan plan, Object[] args) {
+        return new Object[]{methodArgs(plan, args)};
     }
 
-    public Object[] warnAfter(ProceedingJoinPoint joinPoint, Loggable loggable, Object result, long nano) {
-        return new Object[]{methodName(joinPoint), methodArgs(joinPoint, loggable),
-                methodResults(result, loggable), durationString(nano), warnDuration(loggable)};
+    public Object[] warnBefore(LoggerPlan plan, Object[] args, long nano, LoggerThreadSnapshot snapshot) {
+        return new Object[]{methodArgs(plan, args), new Elapsed(nano), snapshot != null ? snapshot : ""};
     }
 
-    public Object[] after(ProceedingJoinPoint joinPoint, Loggable loggable, Object result, long nano) {
-        return new Object[]{methodName(joinPoint), methodArgs(joinPoint, loggable),
-                methodResults(result, loggable), durationString(nano)};
+    public Object[] warnAfter(LoggerPlan plan, Object[] args, Object result, long nano) {
+        return new Object[]{methodArgs(plan, args), methodResults(result, plan), new Elapsed(nano)};
     }
 
-    public Object[] error(ProceedingJoinPoint joinPoint, Loggable loggable, long nano, Throwable err) {
-        return new Object[]{methodName(joinPoint), methodArgs(joinPoint, loggable),
-                errClass(err), errMsg(err), errSourceClass(err), errLine(err), durationString(nano)};
+    public Object[] after(LoggerPlan plan, Object[] args, Object result, long nano) {
+        return new Object[]{methodArgs(plan, args), methodResults(result, plan), new Elapsed(nano)};
     }
 
-    public Object[] errorWithException(ProceedingJoinPoint joinPoint, Loggable loggable, long nano, Throwable err) {
-        return new Object[]{methodName(joinPoint), methodArgs(joinPoint, loggable),
-                errClass(err), errMsg(err), errSourceClass(err), errLine(err), durationString(nano), err};
+    public Object[] error(LoggerPlan plan, Object[] args, long nano, Throwable err) {
+        return new Object[]{methodArgs(plan, args), errClass(err), errMsg(err),
+                new ErrSource(err, false), new ErrSource(err, true), new Elapsed(nano)};
     }
 
-    private String warnDuration(Loggable loggable) {
-        return Duration.ofMillis(loggable.warnUnit().toMillis(loggable.warnOver())).toString();
+    public Object[] errorWithException(LoggerPlan plan, Object[] args, long nano, Throwable err) {
+        return new Object[]{methodArgs(plan, args), errClass(err), errMsg(err),
+                new ErrSource(err, false), new ErrSource(err, true), new Elapsed(nano), err};
     }
 
-    private String methodName(JoinPoint joinPoint) {
-        return ((MethodSignature) joinPoint.getSignature()).getMethod().getName();
+    public Object[] errorRepeated(LoggerPlan plan, Object[] args, long nano, Throwable err, long seen) {
+        return new Object[]{methodArgs(plan, args), errClass(err), errMsg(err),
+                new ErrSource(err, false), new ErrSource(err, true), new Elapsed(nano), seen};
     }
 
-    private String methodArgs(JoinPoint joinPoint, Loggable loggable) {
-        return loggable.skipArgs() ? ".." : argsToString(joinPoint.getArgs());
+    public Object[] rollup(LoggerPlan plan, LoggerRollup.Summary summary, String period) {
+        return new Object[]{summary.getCalls(), period, summary.getErrors(), nanoString(summary.getMin()),
+                nanoString(summary.getMean()), nanoString(summary.getP50()), nanoString(summary.getP99()),
+                nanoString(summary.getMax()), methodArgs(plan, summary.getSlowestArgs())};
     }
 
-    private String methodResults(Object result, Loggable loggable) {
-        return loggable.skipResult() ? ".." : argsToString(result);
+    private Object methodArgs(LoggerPlan plan, Object[] args) {
+        return plan.isSkipArgs() ? SKIPPED : new Rendered(args, plan, true);
+    }
+
+    private Object methodResults(Object result, LoggerPlan plan) {
+        return plan.isSkipResult() ? SKIPPED : new Rendered(result, plan, false);
     }
 
     private String errClass(Throwable err) {
@@ -85,77 +90,65 @@ final class LoggerMsgArgsGenerator {
     }
 
     private int errLine(Throwable err) {
-        if (err.getStackTrace().length > 0) {
-            return err.getStackTrace()[0].getLineNumber();
+        StackTraceElement[] trace = err.getStackTrace();
+        if (trace.length > 0) {
+            return trace[0].getLineNumber();
         }
         return -1;
     }
 
     private String errSourceClass(Throwable err) {
-        if (err.getStackTrace().length > 0) {
-            return err.getStackTrace()[0].getClassName();
+        StackTraceElement[] trace = err.getStackTrace();
+        if (trace.length > 0) {
+            return trace[0].getClassName();
         }
         return "somewhere";
     }
 
-    private String durationString(long nano) {
-        return Duration.ofMillis(TimeUnit.NANOSECONDS.toMillis(nano)).toString();
-    }
-
-    private String argsToString(Object arg) {
-        String text;
-        if (arg == null) {
-            return "NULL";
-        } else if (arg.getClass().isArray()) {
-            if (arg instanceof Object[]) {
-                text = objectArraysToString((Object[]) arg);
-            } else {
-                text = primitiveArrayToString(arg);
-            }
-        } else {
-            String origin = arg.toString();
-            if (arg instanceof String || origin.isEmpty()) {
-                text = String.format("'%s'", origin);
-            } else {
-                text = origin;
-            }
+    private String nanoString(long nano) {
+        return renderer.render(bldr -> LoggerDurations.append(bldr, nano));
+    }
+
+    /**
+     * Renders an argument or a result only when the logging backend formats the message.
+     */
+    @AllArgsConstructor
+    private final class Rendered {
+        private final Object value;
+        private final LoggerPlan plan;
+        private final boolean args;
+
+        @Override
+        public String toString() {
+            return args ? renderer.renderArgs(plan.getAdapter(), (Object[]) value, plan.getLimits())
+                    : renderer.render(value, plan.getLimits());
         }
-        return text;
     }
 
-    private String objectArraysToString(Object... arg) {
-        StringBuilder bldr = new StringBuilder();
-        bldr.append('[');
-        for (Object item : arg) {
-            if (bldr.length() > 1) {
-                bldr.append(",").append(" ");
-            }
-            bldr.append(argsToString(item));
+    /**
+     * Renders a duration only when the logging backend formats the message.
+     */
+    @AllArgsConstructor
+    private final class Elapsed {
+        private final long nano;
+
+        @Override
+        public String toString() {
+            return nanoString(nano);
         }
-        return bldr.append(']').toString();
-    }
-
-    private String primitiveArrayToString(Object arg) {
-        String text;
-        if (arg instanceof char[]) {
-            text = Arrays.toString((char[]) arg);
-        } else if (arg instanceof byte[]) {
-            text = Arrays.toString((byte[]) arg);
-        } else if (arg instanceof short[]) {
-            text = Arrays.toString((short[]) arg);
-        } else if (arg instanceof int[]) {
-            text = Arrays.toString((int[]) arg);
-        } else if (arg instanceof long[]) {
-            text = Arrays.toString((long[]) arg);
-        } else if (arg instanceof float[]) {
-            text = Arrays.toString((float[]) arg);
-        } else if (arg instanceof double[]) {
-            text = Arrays.toString((double[]) arg);
-        } else if (arg instanceof boolean[]) {
-            text = Arrays.toString((boolean[]) arg);
-        } else {
-            text = "[unknown]";
+    }
+
+    /**
+     * Renders the source class or line of an error only when the logging backend formats the message.
+     */
+    @AllArgsConstructor
+    private final class ErrSource {
+        private final Throwable err;
+        private final boolean line;
+
+        @Override
+        public String toString() {
+            return line ? String.valueOf(errLine(err)) : errSourceClass(err);
         }
-        return text;
     }
 }
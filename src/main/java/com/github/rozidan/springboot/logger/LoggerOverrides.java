@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Runtime overrides of {@link Loggable} attributes, per class or per method.
+ *
+ * A class is keyed by its name and a method by its class name followed by a dot and the method name,
+ * e.g. com.example.Service.find for all of its overloads. A method override takes precedence over its class
+ * override, attribute by attribute.
+ *
+ * The overrides are held in an immutable {@link Snapshot}, replaced as a whole on every change, so reading
+ * them takes a single volatile load and no lock. A {@link LoggerPlan} is rebuilt once the entry resolved
+ * for its method is changed.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerOverrides {
+
+    private volatile Snapshot current;
+
+    LoggerOverrides() {
+        this.current = Snapshot.EMPTY;
+    }
+
+    LoggerOverrides(Map<String, LoggerProperties.LoggableOverride> overrides) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        overrides.forEach((key, value) -> entries.put(key, Entry.of(value)));
+        this.current = new Snapshot(entries);
+    }
+
+    Snapshot current() {
+        return current;
+    }
+
+    synchronized void put(String key, Entry entry) {
+        Map<String, Entry> entries = new LinkedHashMap<>(current.entries);
+        entries.put(key, entry);
+        current = new Snapshot(entries);
+    }
+
+    synchronized void remove(String key) {
+        if (current.entries.containsKey(key)) {
+            Map<String, Entry> entries = new LinkedHashMap<>(current.entries);
+            entries.remove(key);
+            current = new Snapshot(entries);
+        }
+    }
+
+    /**
+     * Immutable overrides.
+     */
+    static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap());
+
+        private final Map<String, Entry> entries;
+
+        private Snapshot(Map<String, Entry> entries) {
+            this.entries = Collections.unmodifiableMap(entries);
+        }
+
+        Map<String, Entry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * The effective override of the given method, null when there is none.
+         */
+        Entry resolve(Method method) {
+            if (entries.isEmpty()) {
+                return null;
+            }
+            String className = method.getDeclaringClass().getName();
+            Entry classEntry = entries.get(className);
+            Entry methodEntry = entries.get(className + "." + method.getName());
+            if (methodEntry == null) {
+                return classEntry;
+            }
+            return classEntry != null ? classEntry.with(methodEntry) : methodEntry;
+        }
+    }
+
+    /**
+     * Overridden attributes, a null attribute is not overridden.
+     */
+    @Getter
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    static final class Entry {
+
+        private final LogLevel level;
+        private final Boolean entered;
+        private final Boolean skipArgs;
+        private final Boolean skipResult;
+
+        /**
+         * A negative duration disables the warnOver.
+         */
+        private final Duration warnOver;
+
+        static Entry of(LoggerProperties.LoggableOverride override) {
+            return new Entry(override.getLevel(), override.getEntered(), override.getSkipArgs(),
+                    override.getSkipResult(), override.getWarnOver());
+        }
+
+        /**
+         * This entry, overridden by the non null attributes of the given one.
+         */
+        Entry with(Entry other) {
+            return new Entry(
+                    other.level != null ? other.level : level,
+                    other.entered != null ? other.entered : entered,
+                    other.skipArgs != null ? other.skipArgs : skipArgs,
+                    other.skipResult != null ? other.skipResult : skipResult,
+                    other.warnOver != null ? other.warnOver : warnOver);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.Getter;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Precompiled invocation plan of a {@link Loggable} method.
+ *
+ * Built once per method, holds everything the interceptor needs in order to log an invocation.
+ *
+ * @author Idan Rozenfeld
+ */
+@Getter
+final class LoggerPlan {
+
+    private static final boolean REACTOR_PRESENT =
+            ClassUtils.isPresent("reactor.core.publisher.Mono", LoggerPlan.class.getClassLoader());
+
+    private static final LoggerAdapter NO_ADAPTER = signature -> null;
+
+    private static final ClassValue<LoggerAdapter> ADAPTERS = new ClassValue<LoggerAdapter>() {
+        @Override
+        protected LoggerAdapter computeValue(Class<?> type) {
+            try {
+                Class<?> adapter = ClassUtils.forName(type.getName() + LoggerAdapter.SUFFIX, type.getClassLoader());
+                return (LoggerAdapter) adapter.getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return NO_ADAPTER;
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Unable to instantiate the logger adapter of " + type, e);
+            }
+        }
+    };
+
+    private final Method method;
+    private final Loggable loggable;
+    private final LoggerOverrides.Entry override;
+    private volatile LoggerOverrides.Snapshot overrides;
+    private final Returns returns;
+    private final org.slf4j.Logger log;
+    private final LogLevel level;
+    private final boolean entered;
+    private final boolean skipArgs;
+    private final boolean skipResult;
+    private final Class<? extends Throwable>[] ignore;
+    private final ConcurrentMap<Class<?>, Boolean> ignored;
+    private final long warnOverNanos;
+    private final String warnDuration;
+    private final LoggerArgsRenderer.Limits limits;
+    private final LoggerMetrics.Timers timers;
+    private final LoggerSampler sampler;
+    private final LoggerCondition condition;
+    private final LoggerCondition resultCondition;
+    private final LoggerRollup rollup;
+    private final LoggerAdapter.Args adapter;
+
+    private final String enterMessage;
+    private final String afterMessage;
+    private final String warnAfterMessage;
+    private final String warnBeforeMessage;
+    private final String errorMessage;
+    private final String repeatedErrorMessage;
+    private final String suppressedMessage;
+    private final String rollupMessage;
+    private final String profileMessage;
+    private final String shortName;
+    private final String jsonFields;
+
+    LoggerPlan(Method method, Loggable loggable, LoggerProperties properties) {
+        this(method, loggable, properties, null);
+    }
+
+    LoggerPlan(Method method, Loggable loggable, LoggerProperties properties, LoggerMetrics metrics) {
+        this(method, loggable, properties, metrics, LoggerOverrides.Snapshot.EMPTY);
+    }
+
+    LoggerPlan(Method method, Loggable loggable, LoggerProperties properties, LoggerMetrics metrics,
+               LoggerOverrides.Snapshot overrides) {
+        LoggerOverrides.Entry override = overrides.resolve(method);
+        this.method = method;
+        this.loggable = loggable;
+        this.override = override;
+        this.overrides = overrides;
+        this.returns = returns(method.getReturnType());
+        this.log = loggable.name().isEmpty()
+                ? LoggerFactory.getLogger(method.getDeclaringClass())
+                : LoggerFactory.getLogger(loggable.name());
+        this.level = override != null && override.getLevel() != null ? override.getLevel() : loggable.value();
+        this.rollup = loggable.rollup() == Loggable.Rollup.ENABLED
+                || loggable.rollup() == Loggable.Rollup.INHERIT && properties.getRollup().isEnabled()
+                ? new LoggerRollup() : null;
+        // a rolled up invocation is not logged on its own
+        this.entered = rollup == null && (override != null && override.getEntered() != null
+                ? override.getEntered() : loggable.entered());
+        this.skipArgs = override != null && override.getSkipArgs() != null
+                ? override.getSkipArgs() : loggable.skipArgs();
+        this.skipResult = override != null && override.getSkipResult() != null
+                ? override.getSkipResult() : loggable.skipResult();
+        this.ignore = loggable.ignore();
+        // per plan rather than a ClassValue, which would leave an entry in every exception class per plan
+        this.ignored = ignore.length > 0 ? new ConcurrentHashMap<>(4) : null;
+        if (override != null && override.getWarnOver() != null) {
+            this.warnOverNanos = override.getWarnOver().isNegative() ? -1 : override.getWarnOver().toNanos();
+        } else {
+            this.warnOverNanos = loggable.warnOver() >= 0 ? loggable.warnUnit().toNanos(loggable.warnOver()) : -1;
+        }
+        this.warnDuration = warnOverNanos >= 0 ? LoggerDurations.format(warnOverNanos) : "";
+
+        LoggerProperties.Render render = properties.getRender();
+        this.limits = new LoggerArgsRenderer.Limits(
+                limit(loggable.maxChars(), render.getMaxChars()),
+                limit(loggable.maxElements(), render.getMaxElements()),
+                limit(loggable.maxDepth(), render.getMaxDepth()),
+                LoggerMask.of(method, loggable.mask(), render.getMaskPatterns()));
+        this.timers = metrics != null ? metrics.timers(method) : null;
+
+        LoggerProperties.Sampling sampling = properties.getSampling();
+        double sampleRate = loggable.sampleRate() >= 0 ? loggable.sampleRate() : sampling.getRate();
+        int maxPerSecond = limit(loggable.maxPerSecond(), sampling.getMaxPerSecond());
+        this.sampler = LoggerSampler.isSampling(sampleRate, maxPerSecond)
+                ? new LoggerSampler(sampleRate, maxPerSecond) : null;
+        this.condition = LoggerCondition.of(method, "condition", loggable.condition());
+        this.resultCondition = LoggerCondition.of(method, "resultCondition", loggable.resultCondition());
+        this.adapter = ADAPTERS.get(method.getDeclaringClass()).args(signature(method));
+
+        String prefix = "#" + method.getName() + "({}): ";
+        this.enterMessage = prefix + "entered";
+        this.afterMessage = prefix + "{} in {}";
+        this.warnAfterMessage = prefix + "{} in {} (max " + warnDuration + ")";
+        this.warnBeforeMessage = prefix + "in {} and still running (max " + warnDuration + "){}";
+        this.errorMessage = prefix + "thrown {}({}) from {}[{}] in {}";
+        this.repeatedErrorMessage = errorMessage + ", seen {} more times";
+        this.suppressedMessage = "#" + method.getName() + ": {} invocations suppressed in the last {}";
+        this.rollupMessage = "#" + method.getName()
+                + ": {} invocations in the last {}, errors {}, min {}, mean {}, p50 {}, p99 {}, max {} with ({})";
+        this.profileMessage = "#" + method.getName() + ": call tree in {}: {}";
+        this.shortName = ClassUtils.getShortName(method.getDeclaringClass()) + "." + method.getName();
+
+        StringBuilder json = new StringBuilder("\"class\":");
+        LoggerArgsRenderer.appendJsonString(json, method.getDeclaringClass().getName());
+        json.append(",\"method\":");
+        LoggerArgsRenderer.appendJsonString(json, method.getName());
+        this.jsonFields = json.toString();
+    }
+
+    private static Returns returns(Class<?> type) {
+        if (CompletionStage.class.isAssignableFrom(type)) {
+            return Returns.STAGE;
+        }
+        if (REACTOR_PRESENT) {
+            return LoggerReactiveSupport.returns(type);
+        }
+        return Returns.VALUE;
+    }
+
+    /**
+     * The method name along with its canonical parameter type names, as generated by the
+     * {@link LoggerAdapterProcessor}.
+     */
+    static String signature(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            String name = types[i].getCanonicalName();
+            signature.append(name != null ? name : types[i].getName());
+        }
+        return signature.append(')').toString();
+    }
+
+    private static int limit(int local, int global) {
+        if (local == Integer.MAX_VALUE) {
+            return -1;
+        }
+        return local >= 0 ? local : global;
+    }
+
+    /**
+     * Keeps this plan for the given overrides, which resolve the same entry for its method.
+     */
+    void setOverrides(LoggerOverrides.Snapshot overrides) {
+        this.overrides = overrides;
+    }
+
+    public boolean isRollup() {
+        return rollup != null;
+    }
+
+    public boolean isWarnEnabled() {
+        return warnOverNanos >= 0;
+    }
+
+    /**
+     * Should the stack trace of the given error not be logged? resolved once per exception class.
+     */
+    public boolean isIgnored(Throwable err) {
+        return ignored != null && ignored.computeIfAbsent(err.getClass(), this::isIgnored);
+    }
+
+    private boolean isIgnored(Class<?> type) {
+        for (Class<? extends Throwable> ignoreType : ignore) {
+            if (ignoreType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Should the current invocation be logged? errors and warnOver breaches are not sampled.
+     */
+    public boolean isSampled() {
+        return sampler == null || sampler.sample();
+    }
+
+    /**
+     * Do the arguments of the current invocation meet the condition of the method?
+     */
+    public boolean matches(Object[] args) {
+        return condition == null || condition.matches(args, null);
+    }
+
+    /**
+     * Does the result of the current invocation meet the result condition of the method?
+     */
+    public boolean matchesResult(Object[] args, Object result) {
+        return resultCondition == null || resultCondition.matches(args, result);
+    }
+
+    public boolean isOver(long nano) {
+        return warnOverNanos >= 0 && nano > warnOverNanos;
+    }
+
+    /**
+     * Does the execution start only once the returned publisher is subscribed?
+     */
+    public boolean isReactive() {
+        return returns == Returns.MONO || returns == Returns.FLUX;
+    }
+
+    /**
+     * How the method completes.
+     */
+    enum Returns {
+
+        /**
+         * Completes when it returns.
+         */
+        VALUE,
+
+        /**
+         * Completes with the returned {@link CompletionStage}.
+         */
+        STAGE,
+
+        /**
+         * Completes with the returned Mono, once subscribed.
+         */
+        MONO,
+
+        /**
+         * Completes with the returned Flux, once subscribed.
+         */
+        FLUX
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+
+/**
+ * Cache of {@link LoggerPlan}s, keyed by the intercepted method along with its target class, the effective
+ * {@link Loggable} of a method is resolved against its target class.
+ *
+ * Plans hold the rollup, sampling and condition state of their method, so a plan is built once and kept
+ * for the life of the interceptor. It is rebuilt only once the {@link LoggerOverrides} entry of its method
+ * is changed, other changes of the overrides keep it. The log level is not part of the plan, it is checked on
+ * every invocation.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerPlanCache {
+
+    private final ConcurrentMap<MethodClassKey, LoggerPlan> plans = new ConcurrentHashMap<>();
+
+    private final LoggerProperties properties;
+    private final LoggerMetrics metrics;
+    private final LoggerOverrides overrides;
+
+    LoggerPlanCache(LoggerProperties properties, LoggerMetrics metrics, LoggerOverrides overrides) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.overrides = overrides;
+    }
+
+    public LoggerPlan get(JoinPoint joinPoint, Loggable loggable) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        // the same method may be reached through a class level annotation of another target,
+        // static methods have no target
+        Object target = joinPoint.getTarget();
+        MethodClassKey key = new MethodClassKey(method,
+                target != null ? AopUtils.getTargetClass(target) : method.getDeclaringClass());
+        LoggerOverrides.Snapshot snapshot = overrides.current();
+        LoggerPlan plan = plans.get(key);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(key, k -> build(method, loggable));
+        }
+        return plan.getOverrides() == snapshot ? plan : refresh(key, plan, snapshot, loggable);
+    }
+
+    private LoggerPlan refresh(MethodClassKey key, LoggerPlan plan, LoggerOverrides.Snapshot snapshot,
+                               Loggable loggable) {
+        if (Objects.equals(snapshot.resolve(plan.getMethod()), plan.getOverride())) {
+            plan.setOverrides(snapshot);
+            return plan;
+        }
+        // replaced only if no other thread has rebuilt it meanwhile
+        return plans.compute(key, (k, current) -> current == null || current == plan
+                ? build(plan.getMethod(), loggable) : current);
+    }
+
+    private LoggerPlan build(Method method, Loggable loggable) {
+        return new LoggerPlan(method, loggable, properties, metrics, overrides.current());
+    }
+
+    public void clear() {
+        plans.clear();
+    }
+
+    public void forEach(Consumer<LoggerPlan> action) {
+        plans.values().forEach(action);
+    }
+
+    public int size() {
+        return plans.size();
+    }
+}
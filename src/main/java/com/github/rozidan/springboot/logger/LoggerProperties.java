@@ -0,0 +1,437 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Logger configuration properties.
+ *
+ * @author Idan Rozenfeld
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logger")
+public class LoggerProperties {
+
+    /**
+     * Format of the logged events. (default: TEXT)
+     */
+    private Format format = Format.TEXT;
+
+    /**
+     * warnOver watchdog properties.
+     */
+    private final Warn warn = new Warn();
+
+    /**
+     * Asynchronous logging properties.
+     */
+    private final Async async = new Async();
+
+    /**
+     * Arguments and results rendering properties.
+     */
+    private final Render render = new Render();
+
+    /**
+     * Sampling and rate limiting properties.
+     */
+    private final Sampling sampling = new Sampling();
+
+    /**
+     * Periodic rollup properties.
+     */
+    private final Rollup rollup = new Rollup();
+
+    /**
+     * Call tree profiling properties.
+     */
+    private final Profile profile = new Profile();
+
+    /**
+     * Black box properties.
+     */
+    private final BlackBox blackBox = new BlackBox();
+
+    /**
+     * JDK Flight Recorder events properties.
+     */
+    private final Jfr jfr = new Jfr();
+
+    /**
+     * Errors deduplication properties.
+     */
+    private final Errors errors = new Errors();
+
+    /**
+     * Micrometer timers properties.
+     */
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Build time index of the Loggable types properties.
+     */
+    private final Index index = new Index();
+
+    /**
+     * Overrides of the Loggable attributes, keyed by a class name or by a class name followed by a dot and
+     * a method name, e.g. logger.overrides[com.example.Service.find].skip-args=false. May be changed at
+     * runtime through the loggable actuator endpoint.
+     */
+    private final Map<String, LoggableOverride> overrides = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Warn {
+
+        /**
+         * Resolution of the watchdog timer. (default: 100ms)
+         */
+        private Duration tickDuration = Duration.ofMillis(100);
+
+        /**
+         * Number of slots in the watchdog timer wheel. (default: 512)
+         */
+        private int ticksPerWheel = 512;
+
+        /**
+         * Maximum "still running" warnings for a single execution. (default: 1)
+         */
+        private int maxWarnings = 1;
+
+        /**
+         * Multiplier of the interval between two consecutive "still running" warnings. (default: 2)
+         */
+        private double backoffMultiplier = 2;
+
+        /**
+         * Should the watchdog run on a daemon thread? ignored when a 'loggerThreadFactory' bean exists.
+         * (default: True)
+         */
+        private boolean daemon = true;
+
+        /**
+         * Maximum stack frames of the executing thread to log with a "still running" warning, along with
+         * its lock and blocked info, 0 to capture nothing. (default: 0)
+         */
+        private int stackDepth;
+    }
+
+    @Getter
+    @Setter
+    public static class Async {
+
+        /**
+         * Should intercepted methods be rendered and logged by background threads? (default: False)
+         */
+        private boolean enabled;
+
+        /**
+         * Number of events the buffer can hold, rounded up to a power of two. (default: 1024)
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * Number of background threads, with more than one the events of a same calling thread may be
+         * logged out of order. (default: 1)
+         */
+        private int consumers = 1;
+
+        /**
+         * Should the MDC of the calling thread be copied and restored while its events are logged?
+         * (default: True)
+         */
+        private boolean includeMdc = true;
+
+        /**
+         * What to do when the buffer is full. (default: SYNC)
+         */
+        private Overflow overflow = Overflow.SYNC;
+    }
+
+    @Getter
+    @Setter
+    public static class Render {
+
+        /**
+         * Maximum characters of the rendered arguments or result, -1 for no limit. (default: -1)
+         */
+        private int maxChars = -1;
+
+        /**
+         * Maximum rendered elements of an array, collection or map, -1 for no limit. (default: -1)
+         */
+        private int maxElements = -1;
+
+        /**
+         * Maximum rendered nesting of arrays, collections and maps, -1 for no limit. (default: -1)
+         */
+        private int maxDepth = -1;
+
+        /**
+         * Parameter names and map keys, with * wildcards, whose values are masked in every method.
+         * (default: none)
+         */
+        private String[] maskPatterns = {};
+    }
+
+    @Getter
+    @Setter
+    public static class Sampling {
+
+        /**
+         * Fraction of the invocations to log, between 0 and 1. (default: 1)
+         */
+        private double rate = 1;
+
+        /**
+         * Maximum logged invocations per second of a method, -1 for no limit. (default: -1)
+         */
+        private int maxPerSecond = -1;
+
+        /**
+         * Interval between two reports of the suppressed invocations. (default: 1m)
+         */
+        private Duration reportInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Rollup {
+
+        /**
+         * Should the invocations of all the methods be summed up into a single line per interval?
+         * (default: False)
+         */
+        private boolean enabled;
+
+        /**
+         * Interval between two summaries of a method. (default: 1m)
+         */
+        private Duration interval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Profile {
+
+        /**
+         * Should the nested invocations of a root Loggable method be logged as a single call tree?
+         * (default: False)
+         */
+        private boolean enabled;
+
+        /**
+         * Minimum duration of a root invocation for its call tree to be logged. (default: 100ms)
+         */
+        private Duration threshold = Duration.ofMillis(100);
+
+        /**
+         * Log only the given number of hottest methods by self time instead of the whole tree, 0 for the
+         * whole tree. (default: 0)
+         */
+        private int top;
+
+        /**
+         * Maximum recorded invocations of a single call tree. (default: 128)
+         */
+        private int maxNodes = 128;
+
+        /**
+         * Maximum recorded nesting of a single call tree. (default: 16)
+         */
+        private int maxDepth = 16;
+    }
+
+    @Getter
+    @Setter
+    public static class BlackBox {
+
+        /**
+         * Should the invocations be kept in a per thread ring instead of being logged, and logged only
+         * when an error or a warnOver breach occurs? (default: False)
+         */
+        private boolean enabled;
+
+        /**
+         * Number of the most recent invocations kept by every thread. (default: 32)
+         */
+        private int size = 32;
+    }
+
+    @Getter
+    @Setter
+    public static class Jfr {
+
+        /**
+         * Should every invocation be recorded as a JDK Flight Recorder event? (default: False)
+         */
+        private boolean enabled;
+
+        /**
+         * Should the invocations still be logged alongside the events? (default: True)
+         */
+        private boolean log = true;
+
+        /**
+         * Should only the invocations that take longer than their warnOver be recorded? (default: False)
+         */
+        private boolean onlyOver;
+    }
+
+    @Getter
+    @Setter
+    public static class Errors {
+
+        /**
+         * Should the stack trace of a repeated error be logged only once per window? (default: False)
+         */
+        private boolean deduplicate;
+
+        /**
+         * Number of top stack frames that, along with the exception class, identify an error. (default: 5)
+         */
+        private int frames = 5;
+
+        /**
+         * Window in which the stack trace of an error is logged once. (default: 1m)
+         */
+        private Duration window = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of distinct errors to remember. (default: 1024)
+         */
+        private int maxFingerprints = 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+
+        /**
+         * Should the duration of intercepted methods be published into Micrometer timers? ignored when
+         * there is no MeterRegistry. (default: True)
+         */
+        private boolean enabled = true;
+
+        /**
+         * Name of the timers, tagged by class, method and outcome. (default: logger.method)
+         */
+        private String name = "logger.method";
+
+        /**
+         * Should the timers publish a percentile histogram? (default: False)
+         */
+        private boolean histogram;
+
+        /**
+         * Client side computed percentiles to publish, e.g. 0.5,0.95,0.99. (default: none)
+         */
+        private double[] percentiles;
+    }
+
+    @Getter
+    @Setter
+    public static class Index {
+
+        /**
+         * Should only the types listed in the META-INF/loggable.index files, generated by the
+         * LoggerAdapterProcessor, be considered for proxying? ignored when there is no index. (default: False)
+         */
+        private boolean enabled;
+    }
+
+    @Getter
+    @Setter
+    public static class LoggableOverride {
+
+        /**
+         * Overrides the log level. (default: not overridden)
+         */
+        private LogLevel level;
+
+        /**
+         * Overrides the entered flag. (default: not overridden)
+         */
+        private Boolean entered;
+
+        /**
+         * Overrides the skipArgs flag. (default: not overridden)
+         */
+        private Boolean skipArgs;
+
+        /**
+         * Overrides the skipResult flag. (default: not overridden)
+         */
+        private Boolean skipResult;
+
+        /**
+         * Overrides the warnOver duration, a negative duration disables it. (default: not overridden)
+         */
+        private Duration warnOver;
+    }
+
+    /**
+     * Format of the logged events.
+     */
+    public enum Format {
+
+        /**
+         * Human readable messages, e.g. #find(['id', 1]): NULL in 1.25ms
+         */
+        TEXT,
+
+        /**
+         * Human readable messages, along with the class, method, event, durationNanos and outcome of the event
+         * in the MDC.
+         */
+        MDC,
+
+        /**
+         * Single line JSON objects, holding the class, method, event, args, result, durationNanos, outcome and
+         * exception of the event.
+         */
+        JSON
+    }
+
+    /**
+     * Policy of a full asynchronous buffer.
+     */
+    public enum Overflow {
+
+        /**
+         * Wait for a free slot, the still running warnings of the watchdog are logged on it instead.
+         */
+        BLOCK,
+
+        /**
+         * Drop the event, dropped events are counted and reported.
+         */
+        DROP,
+
+        /**
+         * Log the event on the calling thread.
+         */
+        SYNC
+    }
+}
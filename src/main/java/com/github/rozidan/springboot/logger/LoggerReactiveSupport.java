@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hooks the completion of Reactor publishers, loaded only when Reactor is present.
+ *
+ * Every subscription is a separate execution, its clock starts when subscribed and stops on the
+ * completion or error signal.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerReactiveSupport {
+
+    private LoggerReactiveSupport() {
+    }
+
+    /**
+     * Only the exact Mono and Flux types are decorated, subtypes like ConnectableFlux are values since
+     * the deferred publisher could not be returned as the declared type.
+     */
+    static LoggerPlan.Returns returns(Class<?> type) {
+        if (type == Mono.class) {
+            return LoggerPlan.Returns.MONO;
+        }
+        if (type == Flux.class) {
+            return LoggerPlan.Returns.FLUX;
+        }
+        return LoggerPlan.Returns.VALUE;
+    }
+
+    static Object decorate(LoggerPlan plan, Object publisher,
+                           Supplier<LoggerInterceptor.Completion> completions) {
+        if (plan.getReturns() == LoggerPlan.Returns.MONO) {
+            Mono<?> mono = (Mono<?>) publisher;
+            return Mono.defer(() -> {
+                LoggerInterceptor.Completion completion = completions.get();
+                completion.start();
+                return mono.doOnError(err -> completion.complete(null, err))
+                        .doOnSuccess(result -> completion.complete(result, null))
+                        .doOnCancel(completion::cancel);
+            });
+        }
+        Flux<?> flux = (Flux<?>) publisher;
+        return Flux.defer(() -> {
+            LoggerInterceptor.Completion completion = completions.get();
+            Emitted emitted = new Emitted();
+            completion.start();
+            return flux.doOnNext(element -> emitted.count++)
+                    .doOnError(err -> completion.complete(null, err))
+                    .doOnComplete(() -> completion.complete(emitted, null))
+                    .doOnCancel(completion::cancel);
+        });
+    }
+
+    /**
+     * Result of a Flux, the number of emitted elements.
+     */
+    static final class Emitted {
+
+        private long count;
+
+        @Override
+        public String toString() {
+            return count + " elements";
+        }
+    }
+}
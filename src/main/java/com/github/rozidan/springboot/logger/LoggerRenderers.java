@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Registry of the {@link ArgumentRenderer}s.
+ *
+ * The renderer of a runtime class is resolved once, by walking its superclasses and interfaces breadth
+ * first, and is cached in a {@link ClassValue} so rendering a value costs a single lookup.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerRenderers {
+
+    private static final ArgumentRenderer<Object> NONE = (value, context) -> {
+    };
+
+    private final Map<Class<?>, ArgumentRenderer<Object>> renderers = new LinkedHashMap<>();
+
+    private final ClassValue<ArgumentRenderer<Object>> resolved = new ClassValue<ArgumentRenderer<Object>>() {
+        @Override
+        protected ArgumentRenderer<Object> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private LoggerRenderers(Collection<? extends ArgumentRenderer<?>> renderers) {
+        // the first renderer of a type wins, so the renderers are expected in their bean order
+        renderers.forEach(renderer -> this.renderers.putIfAbsent(renderer.type(), (ArgumentRenderer<Object>) renderer));
+    }
+
+    /**
+     * Creates the registry of the given renderers, null when there are none.
+     */
+    static LoggerRenderers of(Collection<? extends ArgumentRenderer<?>> renderers) {
+        return renderers == null || renderers.isEmpty() ? null : new LoggerRenderers(renderers);
+    }
+
+    /**
+     * The renderer of the given runtime class, null when there is none.
+     */
+    ArgumentRenderer<Object> find(Class<?> type) {
+        ArgumentRenderer<Object> renderer = resolved.get(type);
+        return renderer != NONE ? renderer : null;
+    }
+
+    private ArgumentRenderer<Object> resolve(Class<?> type) {
+        if (type == String.class || ClassUtils.isPrimitiveWrapper(type)) {
+            return NONE;
+        }
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> candidate = queue.poll();
+            ArgumentRenderer<Object> renderer = renderers.get(candidate);
+            if (renderer != null) {
+                return renderer;
+            }
+            if (candidate.getSuperclass() != null && visited.add(candidate.getSuperclass())) {
+                queue.add(candidate.getSuperclass());
+            }
+            for (Class<?> iface : candidate.getInterfaces()) {
+                if (visited.add(iface)) {
+                    queue.add(iface);
+                }
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.aspectj.lang.JoinPoint;
+
+/**
+ * Sums up the invocations of a single method, drained into a summary once per interval.
+ *
+ * Counters are striped, and latencies are counted in a log-linear histogram of four buckets per power of
+ * two, so percentiles are accurate within 25%. The arguments of the slowest invocation are taken
+ * only when it exceeds the slowest one so far.
+ *
+ * A drain swaps the counters of the interval for fresh ones and waits for the invocations still recording
+ * into them, so every invocation is summed up in exactly one interval.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerRollup {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicReference<Interval> interval = new AtomicReference<>(new Interval());
+
+    void record(long nano, JoinPoint point) {
+        record(nano, point, null);
+    }
+
+    void record(long nano, JoinPoint point, Throwable err) {
+        Interval current = enter();
+        try {
+            current.record(Math.max(nano, 0), point, err);
+        } finally {
+            current.writers.decrementAndGet();
+        }
+    }
+
+    /**
+     * The interval to record into, announced as written so that its drain waits for the recording.
+     */
+    private Interval enter() {
+        while (true) {
+            Interval current = interval.get();
+            current.writers.incrementAndGet();
+            if (interval.get() == current) {
+                return current;
+            }
+            // drained meanwhile, recorded into the next interval instead
+            current.writers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Starts a new interval and returns the summary of the previous one, null when there were no invocations.
+     */
+    Summary drain() {
+        Interval drained = interval.getAndSet(new Interval());
+        while (drained.writers.get() != 0) {
+            Thread.yield();
+        }
+        return drained.summary();
+    }
+
+    static int bucket(long nano) {
+        if (nano < SUB_BUCKETS) {
+            return (int) nano;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nano);
+        int sub = (int) (nano >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Highest value of the given bucket.
+     */
+    static long highest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long next = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+        return next - 1;
+    }
+
+    private static long percentile(long[] counts, long count, double percentile, long maxNanos) {
+        long rank = Math.max((long) Math.ceil(count * percentile), 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highest(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Counters of a single interval.
+     */
+    private static final class Interval {
+
+        private final AtomicLong writers = new AtomicLong();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final ConcurrentMap<Class<?>, LongAdder> errors = new ConcurrentHashMap<>();
+        private final AtomicReference<Slowest> slowest = new AtomicReference<>();
+
+        Interval() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nano, JoinPoint point, Throwable err) {
+            if (err != null) {
+                LongAdder counter = errors.get(err.getClass());
+                if (counter == null) {
+                    counter = errors.computeIfAbsent(err.getClass(), type -> new LongAdder());
+                }
+                counter.increment();
+            }
+            calls.increment();
+            total.add(nano);
+            min.accumulate(nano);
+            max.accumulate(nano);
+            buckets[bucket(nano)].increment();
+            Slowest current = slowest.get();
+            if (current == null || nano > current.nanos) {
+                Slowest next = new Slowest(nano, point.getArgs());
+                while (!slowest.compareAndSet(current, next)) {
+                    current = slowest.get();
+                    if (current != null && current.nanos >= nano) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        Summary summary() {
+            long count = calls.sum();
+            if (count == 0) {
+                return null;
+            }
+            long maxNanos = max.get();
+            long[] counts = new long[BUCKETS];
+            long histogramCount = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                histogramCount += counts[i];
+            }
+            Map<String, Long> errorCounts = new LinkedHashMap<>();
+            errors.forEach((type, counter) -> errorCounts.put(type.getName(), counter.sum()));
+            Slowest slowestCall = slowest.get();
+            return new Summary(count, errorCounts, Math.min(min.get(), maxNanos), total.sum() / count,
+                    percentile(counts, histogramCount, 0.5, maxNanos),
+                    percentile(counts, histogramCount, 0.99, maxNanos),
+                    maxNanos, slowestCall != null ? slowestCall.args : null);
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Slowest {
+        private final long nanos;
+        private final Object[] args;
+    }
+
+    /**
+     * Invocations of a method in an interval, durations are in nanoseconds.
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class Summary {
+        private final long calls;
+        private final Map<String, Long> errors;
+        private final long min;
+        private final long mean;
+        private final long p50;
+        private final long p99;
+        private final long max;
+        private final Object[] slowestArgs;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether an invocation of a {@link Loggable} method is logged, by probabilistic sampling
+ * and by a token bucket of invocations per second.
+ *
+ * The bucket is kept as a single theoretical arrival time (GCRA), so a decision is one CAS at most
+ * and never blocks. Suppressed invocations are counted until they are reported.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerSampler {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double rate;
+    private final long interval;
+    private final long burst;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * @param rate         fraction of the invocations to log, between 0 and 1
+     * @param maxPerSecond maximum logged invocations per second, negative for no limit
+     */
+    LoggerSampler(double rate, int maxPerSecond) {
+        this.rate = rate;
+        this.interval = maxPerSecond > 0 ? SECOND / maxPerSecond : maxPerSecond == 0 ? Long.MAX_VALUE : 0;
+        this.burst = maxPerSecond >= 0 ? SECOND - interval : 0;
+    }
+
+    /**
+     * Does the sampler drop any invocation?
+     */
+    static boolean isSampling(double rate, int maxPerSecond) {
+        return rate < 1 || maxPerSecond >= 0;
+    }
+
+    /**
+     * Should the current invocation be logged? must be called once per invocation.
+     */
+    boolean sample() {
+        if ((rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) || !acquire()) {
+            suppressed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Number of suppressed invocations since the last call.
+     */
+    long drainSuppressed() {
+        return suppressed.sumThenReset();
+    }
+
+    private boolean acquire() {
+        if (interval == 0) {
+            return true;
+        }
+        if (interval == Long.MAX_VALUE) {
+            return false;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long current = arrival.get();
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + interval;
+            if (next - now > burst + interval) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * State of a thread running an over-budget execution: its stack trace, the lock it is blocked on and
+ * the locks it holds.
+ *
+ * Captured by the warnOver watchdog at the moment of the breach, rendered only when the logging backend
+ * formats the message.
+ *
+ * @author Idan Rozenfeld
+ */
+final class LoggerThreadSnapshot {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ThreadInfo info;
+    private final int depth;
+
+    private LoggerThreadSnapshot(ThreadInfo info, int depth) {
+        this.info = info;
+        this.depth = depth;
+    }
+
+    /**
+     * Captures the given thread, null when the thread is no longer alive.
+     */
+    static LoggerThreadSnapshot capture(Thread thread, int depth) {
+        ThreadInfo[] infos = THREADS.getThreadInfo(new long[]{thread.getId()},
+                THREADS.isObjectMonitorUsageSupported(), THREADS.isSynchronizerUsageSupported());
+        return infos.length > 0 && infos[0] != null ? new LoggerThreadSnapshot(infos[0], depth) : null;
+    }
+
+    @Override
+    public String toString() {
+        return ", " + describe();
+    }
+
+    /**
+     * Renders the thread state, locks and stack trace.
+     */
+    String describe() {
+        StringBuilder bldr = new StringBuilder("thread '").append(info.getThreadName())
+                .append("' (id=").append(info.getThreadId()).append(") ").append(info.getThreadState());
+        if (info.getLockName() != null) {
+            bldr.append(" on ").append(info.getLockName());
+        }
+        if (info.getLockOwnerName() != null) {
+            bldr.append(" owned by '").append(info.getLockOwnerName())
+                    .append("' (id=").append(info.getLockOwnerId()).append(')');
+        }
+        bldr.append(", blocked ").append(info.getBlockedCount()).append(" times");
+        if (info.getBlockedTime() >= 0) {
+            bldr.append(" for ").append(info.getBlockedTime()).append("ms");
+        }
+        bldr.append(", waited ").append(info.getWaitedCount()).append(" times");
+        if (info.getWaitedTime() >= 0) {
+            bldr.append(" for ").append(info.getWaitedTime()).append("ms");
+        }
+
+        StackTraceElement[] trace = info.getStackTrace();
+        int frames = Math.min(trace.length, depth);
+        for (int i = 0; i < frames; i++) {
+            bldr.append(System.lineSeparator()).append("\tat ").append(trace[i]);
+            if (i == 0 && info.getLockInfo() != null) {
+                bldr.append(System.lineSeparator()).append('\t').append(waiting(info.getThreadState()))
+                        .append(' ').append(info.getLockInfo());
+            }
+            for (MonitorInfo monitor : info.getLockedMonitors()) {
+                if (monitor.getLockedStackDepth() == i) {
+                    bldr.append(System.lineSeparator()).append("\t- locked ").append(monitor);
+                }
+            }
+        }
+        if (frames < trace.length) {
+            bldr.append(System.lineSeparator()).append("\t... ").append(trace.length - frames).append(" more");
+        }
+        LockInfo[] synchronizers = info.getLockedSynchronizers();
+        if (synchronizers.length > 0) {
+            bldr.append(System.lineSeparator()).append("\tLocked synchronizers:");
+            for (LockInfo synchronizer : synchronizers) {
+                bldr.append(System.lineSeparator()).append("\t- ").append(synchronizer);
+            }
+        }
+        return bldr.toString();
+    }
+
+    private static String waiting(Thread.State state) {
+        switch (state) {
+            case BLOCKED:
+                return "- blocked on";
+            case WAITING:
+            case TIMED_WAITING:
+                return "- waiting on";
+            default:
+                return "- parked on";
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.async.enabled=true")
+public class LoggableAsyncTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeAsyncService someAsyncService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void paramsReturnTest() throws InterruptedException {
+        someAsyncService.withParamsReturn("str", 10);
+        assertTrue(awaitOutput(Pattern.compile(
+                "INFO com\\.github\\.rozidan\\.springboot\\.logger\\.LoggableAsyncTest\\$SomeAsyncService "
+                        + "- #withParamsReturn\\(\\['str', 10]\\): 10 in")));
+    }
+
+    @Test
+    public void throwTest() throws InterruptedException {
+        try {
+            someAsyncService.withThrow();
+        } catch (Exception ignore) {
+        }
+        assertTrue(awaitOutput(Pattern.compile(
+                "(ERROR com\\.github\\.rozidan\\.springboot\\.logger\\.LoggableAsyncTest\\$SomeAsyncService - "
+                        + "#withThrow\\(\\[]\\): thrown java\\.lang\\.Exception\\(withThrow\\) "
+                        + ".*java\\.lang\\.Exception: withThrow)",
+                Pattern.DOTALL)));
+    }
+
+    @Test
+    public void mdcTest() throws InterruptedException {
+        MDC.put("traceId", "abc123");
+        try {
+            someAsyncService.withContext(new Context());
+        } finally {
+            MDC.remove("traceId");
+        }
+        assertTrue(awaitOutput(Pattern.compile(
+                "#withContext\\(\\[traceId=abc123 thread=" + Pattern.quote(Thread.currentThread().getName())
+                        + "]\\): NULL in")));
+    }
+
+    @Test
+    public void excludedMdcTest() throws InterruptedException {
+        AtomicReference<String> context = new AtomicReference<>();
+        CountDownLatch written = new CountDownLatch(1);
+        LoggerProperties.Async async = new LoggerProperties.Async();
+        async.setIncludeMdc(false);
+        LoggerAsyncDispatcher dispatcher = new LoggerAsyncDispatcher(async, Thread::new, event -> {
+            context.set("traceId=" + MDC.get("traceId") + " thread=" + MDC.get(LoggerAsyncDispatcher.MDC_THREAD));
+            written.countDown();
+        });
+        MDC.put("traceId", "abc123");
+        try {
+            dispatcher.publish(LoggerEvent.Type.RETURNED, LogLevel.INFO, null, null, null, 0, null, null);
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+        } finally {
+            MDC.remove("traceId");
+            dispatcher.stop();
+        }
+        assertThat(context.get(), is("traceId=null thread=" + Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void writerErrorTest() throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(2);
+        LoggerAsyncDispatcher dispatcher = new LoggerAsyncDispatcher(new LoggerProperties.Async(), Thread::new,
+                event -> {
+                    written.countDown();
+                    if (event.getType() == LoggerEvent.Type.THROWN) {
+                        throw new AssertionError("appender failure");
+                    }
+                });
+        try {
+            dispatcher.publish(LoggerEvent.Type.THROWN, LogLevel.ERROR, null, null, null, 0, null, null);
+            dispatcher.publish(LoggerEvent.Type.RETURNED, LogLevel.INFO, null, null, null, 0, null, null);
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void blockedWatchdogTest() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoggerProperties.Async async = new LoggerProperties.Async();
+        async.setBufferSize(2);
+        async.setOverflow(LoggerProperties.Overflow.BLOCK);
+        LoggerAsyncDispatcher dispatcher = new LoggerAsyncDispatcher(async, Thread::new, event -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertTrue(dispatcher.publish(LoggerEvent.Type.RETURNED, LogLevel.INFO, null, null, null, 0, null, null));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            assertTrue(dispatcher.publish(LoggerEvent.Type.RETURNED, LogLevel.INFO, null, null, null, 0, null, null));
+            // the buffer is full, the warning is left to the watchdog rather than waiting for a slot
+            assertFalse(dispatcher.publish(LoggerEvent.Type.RUNNING, LogLevel.WARN, null, null, null, 0, null, null));
+        } finally {
+            release.countDown();
+            dispatcher.stop();
+        }
+    }
+
+    private boolean awaitOutput(Pattern pattern) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (pattern.matcher(capture.toString()).find()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    public static class SomeAsyncService {
+
+        @Loggable
+        public int withParamsReturn(String str, int num) {
+            return num;
+        }
+
+        @Loggable
+        public void withThrow() throws Exception {
+            throw new Exception("withThrow");
+        }
+
+        @Loggable
+        public void withContext(Object context) {
+        }
+    }
+
+    /**
+     * Renders the MDC of the thread it is rendered on.
+     */
+    public static class Context {
+
+        @Override
+        public String toString() {
+            return "traceId=" + MDC.get("traceId") + " thread=" + MDC.get(LoggerAsyncDispatcher.MDC_THREAD);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeAsyncService someAsyncService() {
+            return new SomeAsyncService();
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = {"logger.black-box.enabled=true", "logger.black-box.size=3"})
+public class LoggableBlackBoxTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeRootService someRootService;
+
+    @Autowired
+    private SomeAsyncService someAsyncService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void discardTest() {
+        someRootService.process(5, false);
+        assertThat(capture.toString(), not(containsString("#step")));
+        assertThat(capture.toString(), not(containsString("#process")));
+    }
+
+    @Test
+    public void errorTest() {
+        try {
+            someRootService.process(5, true);
+        } catch (IllegalStateException e) {
+            // logged
+        }
+        String output = capture.toString();
+        assertThat(output, not(containsString("#step([2]): entered")));
+        assertThat(output, not(containsString("#step([3]): 3 in")));
+        assertThat(output, containsString("ERROR " + SomeChildService.class.getName() + " - #step([4]): 4 in"));
+        assertThat(output, containsString("ERROR " + SomeChildService.class.getName() + " - #step([5]): entered"));
+        assertThat(output, containsString("ERROR " + SomeChildService.class.getName() + " - #step([5]): 5 in"));
+        assertTrue(output.indexOf("#step([5]): 5 in") < output.indexOf("#process([5, true]): thrown"));
+
+        // the ring was flushed, nothing is logged twice
+        capture.reset();
+        someRootService.process(1, false);
+        assertThat(capture.toString(), not(containsString("#step")));
+    }
+
+    @Test
+    public void warnOverTest() throws InterruptedException {
+        someRootService.slow(2);
+        String output = capture.toString();
+        assertThat(output, containsString("WARN " + SomeChildService.class.getName() + " - #step([2]): 2 in"));
+        assertThat(output, containsString("WARN " + SomeRootService.class.getName() + " - #slow([2]): NULL in"));
+    }
+
+    @Test
+    public void asyncErrorTest() throws Exception {
+        CompletableFuture<Integer> pending = someAsyncService.pending(new CompletableFuture<>());
+        // fails on a pool thread, in the scope of an unrelated invocation
+        CompletableFuture.supplyAsync(() -> someRootService.relay(3, pending)).get(5, TimeUnit.SECONDS);
+        String output = capture.toString();
+        assertThat(output, containsString("ERROR " + SomeAsyncService.class.getName() + " - #pending("));
+        assertThat(output, containsString("): thrown java.lang.IllegalStateException(relay)"));
+        assertThat(output, not(containsString("#step")));
+        assertThat(output, not(containsString("#relay")));
+    }
+
+    @Loggable
+    public static class SomeRootService {
+
+        private final SomeChildService someChildService;
+
+        public SomeRootService(SomeChildService someChildService) {
+            this.someChildService = someChildService;
+        }
+
+        public void process(int steps, boolean fail) {
+            for (int i = 1; i <= steps; i++) {
+                someChildService.step(i);
+            }
+            if (fail) {
+                throw new IllegalStateException("process");
+            }
+        }
+
+        @Loggable(warnOver = 5, warnUnit = TimeUnit.MILLISECONDS)
+        public void slow(int steps) throws InterruptedException {
+            for (int i = 1; i <= steps; i++) {
+                someChildService.step(i);
+            }
+            Thread.sleep(20);
+        }
+
+        public int relay(int steps, CompletableFuture<Integer> future) {
+            for (int i = 1; i <= steps; i++) {
+                someChildService.step(i);
+            }
+            future.completeExceptionally(new IllegalStateException("relay"));
+            return steps;
+        }
+    }
+
+    @Loggable
+    public static class SomeAsyncService {
+
+        public CompletableFuture<Integer> pending(CompletableFuture<Integer> future) {
+            return future;
+        }
+    }
+
+    @Loggable(entered = true)
+    public static class SomeChildService {
+
+        public int step(int step) {
+            return step;
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeChildService someChildService() {
+            return new SomeChildService();
+        }
+
+        @Bean
+        public SomeAsyncService someAsyncService() {
+            return new SomeAsyncService();
+        }
+
+        @Bean
+        public SomeRootService someRootService(SomeChildService someChildService) {
+            return new SomeRootService(someChildService);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+// the watchdog never fires, so it never reads the clock in the middle of an invocation
+@TestPropertySource(properties = "logger.warn.tick-duration=1h")
+public class LoggableClockTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeTimedService someTimedService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void clockTest() {
+        someTimedService.withParams("str");
+        // the clock steps 250 microseconds on every read, so every invocation takes exactly that long
+        assertTrue(Pattern.compile("INFO .*#withParams\\(\\['str']\\): NULL in 250\\S?s\n")
+                .matcher(capture.toString()).find());
+    }
+
+    @Test
+    public void warnOverTest() {
+        someTimedService.withWarnOver();
+        someTimedService.withoutWarnOver();
+        assertTrue(Pattern.compile("WARN .*#withWarnOver\\(\\[]\\): NULL in 250\\S?s \\(max 100\\S?s\\)")
+                .matcher(capture.toString()).find());
+        assertTrue(Pattern.compile("INFO .*#withoutWarnOver\\(\\[]\\): NULL in 250\\S?s\n")
+                .matcher(capture.toString()).find());
+    }
+
+    @Test
+    public void formatTest() {
+        assertEquals("0ns", LoggerDurations.format(0));
+        assertEquals("850ns", LoggerDurations.format(850));
+        assertEquals("215.4\u00b5s", LoggerDurations.format(215_400));
+        assertEquals("12.05ms", LoggerDurations.format(12_050_000));
+        assertEquals("2.833s", LoggerDurations.format(2_833_999_999L));
+        assertEquals("120s", LoggerDurations.format(TimeUnit.MINUTES.toNanos(2)));
+        assertEquals("-1ms", LoggerDurations.format(-1_000_000));
+    }
+
+    @Loggable
+    public static class SomeTimedService {
+
+        public void withParams(String str) {
+        }
+
+        @Loggable(warnOver = 100, warnUnit = TimeUnit.MICROSECONDS)
+        public void withWarnOver() {
+        }
+
+        @Loggable(warnOver = 250, warnUnit = TimeUnit.MICROSECONDS)
+        public void withoutWarnOver() {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeTimedService someTimedService() {
+            return new SomeTimedService();
+        }
+
+        @Bean
+        public LoggerClock loggerClock() {
+            AtomicLong nanos = new AtomicLong();
+            return () -> nanos.addAndGet(TimeUnit.MICROSECONDS.toNanos(250));
+        }
+    }
+}
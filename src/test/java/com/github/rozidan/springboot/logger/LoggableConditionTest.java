@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+@RunWith(SpringRunner.class)
+public class LoggableConditionTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeConditionedService someConditionedService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void conditionTest() {
+        someConditionedService.charge(50);
+        someConditionedService.charge(20000);
+        assertThat(capture.toString(), not(containsString("#charge([50])")));
+        assertThat(capture.toString(), containsString("#charge([20000]): NULL in"));
+    }
+
+    @Test
+    public void conditionEnteredTest() {
+        someConditionedService.refund(50);
+        someConditionedService.refund(20000);
+        assertThat(capture.toString(), not(containsString("#refund([50])")));
+        assertThat(capture.toString(), containsString("#refund([20000]): entered"));
+    }
+
+    @Test
+    public void conditionErrorTest() {
+        try {
+            someConditionedService.cancel(50);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertThat(capture.toString(),
+                containsString("#cancel([50]): thrown java.lang.IllegalArgumentException(not cancellable)"));
+    }
+
+    @Test
+    public void resultConditionTest() {
+        someConditionedService.find(2);
+        someConditionedService.find(4);
+        assertThat(capture.toString(), not(containsString("#find([2])")));
+        assertThat(capture.toString(), containsString("#find([4]): [0, 1, 2, 3] in"));
+    }
+
+    @Test
+    public void failingConditionTest() {
+        someConditionedService.lookup(null);
+        assertThat(capture.toString(), containsString("Unable to evaluate the condition of"));
+        assertThat(capture.toString(), containsString("#lookup([NULL]): NULL in"));
+    }
+
+    @Test
+    public void invalidConditionTest() {
+        someConditionedService.invalid(50);
+        assertThat(capture.toString(), containsString("Invalid condition of"));
+        assertThat(capture.toString(), containsString("#invalid([50]): NULL in"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidConditionOnStartupTest() throws NoSuchMethodException {
+        LoggerInterceptor interceptor = new LoggerInterceptor(new com.github.rozidan.springboot.logger.Logger());
+        new LoggerAdvisor(interceptor, null).getPointcut().getMethodMatcher().matches(
+                SomeConditionedService.class.getMethod("invalid", long.class), SomeConditionedService.class);
+    }
+
+    @Test
+    public void assigningConditionTest() {
+        someConditionedService.assigning(50);
+        assertThat(capture.toString(), containsString("Invalid condition of"));
+        assertThat(capture.toString(), containsString("#assigning([50]): NULL in"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void assigningConditionOnStartupTest() throws NoSuchMethodException {
+        LoggerInterceptor interceptor = new LoggerInterceptor(new com.github.rozidan.springboot.logger.Logger());
+        new LoggerAdvisor(interceptor, null).getPointcut().getMethodMatcher().matches(
+                SomeConditionedService.class.getMethod("assigning", long.class), SomeConditionedService.class);
+    }
+
+    @Test
+    public void indexedConditionTest() {
+        someConditionedService.indexed(50);
+        someConditionedService.indexed(20000);
+        assertThat(capture.toString(), not(containsString("#indexed([50])")));
+        assertThat(capture.toString(), containsString("#indexed([20000]): NULL in"));
+    }
+
+    @Loggable
+    public static class SomeConditionedService {
+
+        @Loggable(condition = "#amount > 10000")
+        public void charge(long amount) {
+        }
+
+        @Loggable(condition = "#amount > 10000", entered = true)
+        public void refund(long amount) {
+        }
+
+        @Loggable(condition = "#amount > 10000")
+        public void cancel(long amount) {
+            throw new IllegalArgumentException("not cancellable");
+        }
+
+        @Loggable(resultCondition = "#result.size() > 3")
+        public List<Integer> find(int count) {
+            return Arrays.asList(0, 1, 2, 3).subList(0, count);
+        }
+
+        @Loggable(condition = "#amount >")
+        public void invalid(long amount) {
+        }
+
+        @Loggable(condition = "(#amount = 20000) > 10000")
+        public void assigning(long amount) {
+        }
+
+        @Loggable(condition = "#p0 > 10000")
+        public void indexed(long amount) {
+        }
+
+        @Loggable(condition = "#name.length() > 3")
+        public void lookup(String name) {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeConditionedService someConditionedService() {
+            return new SomeConditionedService();
+        }
+    }
+}
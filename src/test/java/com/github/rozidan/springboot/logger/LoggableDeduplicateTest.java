@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.errors.deduplicate=true")
+public class LoggableDeduplicateTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeFailingService someFailingService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void throwRepeatedTest() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                someFailingService.withThrow();
+            } catch (Exception ignore) {
+            }
+        }
+        String output = capture.toString();
+        assertThat(output, containsString("java.lang.Exception: withThrow"));
+        assertEquals(output.indexOf("java.lang.Exception: withThrow"),
+                output.lastIndexOf("java.lang.Exception: withThrow"));
+        assertTrue(Pattern.compile("#withThrow\\(\\[]\\): thrown java\\.lang\\.Exception\\(withThrow\\) "
+                + "from .* in .*, seen 2 more times").matcher(output).find());
+    }
+
+    public static class SomeFailingService {
+
+        @Loggable
+        public void withThrow() throws Exception {
+            throw new Exception("withThrow");
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeFailingService someFailingService() {
+            return new SomeFailingService();
+        }
+    }
+}
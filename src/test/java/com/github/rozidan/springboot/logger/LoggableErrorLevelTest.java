@@ -16,6 +16,7 @@
 package com.github.rozidan.springboot.logger;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -58,7 +59,7 @@ public class LoggableErrorLevelTest {
         someService2.withWarn2Sec();
         Pattern pattern = Pattern
                 .compile("(WARN com\\.iroz\\.springboot\\.logger\\.LoggableErrorLevelTest\\$SomeService2 "
-                        + "- \\#withWarn2Sec\\(\\[\\]\\): in .* and still running \\(max PT0.002S\\))", Pattern.DOTALL);
+                        + "- \\#withWarn2Sec\\(\\[\\]\\): in .* and still running \\(max 2ms\\))", Pattern.DOTALL);
         assertFalse(pattern.matcher(capture.toString()).find());
     }
 
@@ -78,6 +79,19 @@ public class LoggableErrorLevelTest {
                         + "#withDebug([]): NULL in")));
     }
 
+    @Test
+    public void debugNotRenderedTest() {
+        AtomicBoolean rendered = new AtomicBoolean();
+        someService2.withDebugArg(new Object() {
+            @Override
+            public String toString() {
+                rendered.set(true);
+                return "arg";
+            }
+        });
+        assertFalse(rendered.get());
+    }
+
     @Test
     public void infoTest() {
         someService2.withInfo();
@@ -122,6 +136,11 @@ public class LoggableErrorLevelTest {
 
         }
 
+        @Loggable(LogLevel.DEBUG)
+        public void withDebugArg(Object arg) {
+
+        }
+
         @Loggable(LogLevel.INFO)
         public void withInfo() {
 
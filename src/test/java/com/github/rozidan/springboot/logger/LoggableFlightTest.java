@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = {"logger.jfr.enabled=true", "logger.jfr.log=false"})
+public class LoggableFlightTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeRecordedService someRecordedService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void eventsTest() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(LoggerFlightRecorder.NAME);
+            recording.start();
+            someRecordedService.withParams("str");
+            try {
+                someRecordedService.withThrow();
+            } catch (IllegalStateException e) {
+                // recorded
+            }
+            someRecordedService.withWarnOver();
+            recording.stop();
+            Path file = Files.createTempFile("logger", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file).stream()
+                        .filter(event -> event.getEventType().getName().equals(LoggerFlightRecorder.NAME))
+                        .collect(Collectors.toList());
+            } finally {
+                Files.delete(file);
+            }
+        }
+        assertThat(events.size(), equalTo(3));
+        assertThat(events.get(0).getString("className"), equalTo(SomeRecordedService.class.getName()));
+        assertThat(events.get(0).getString("methodName"), equalTo("withParams"));
+        assertThat(events.get(0).getString("outcome"), equalTo("success"));
+        assertThat(events.get(0).getBoolean("over"), equalTo(false));
+        assertThat(events.get(1).getString("outcome"), equalTo(IllegalStateException.class.getName()));
+        assertThat(events.get(2).getBoolean("over"), equalTo(true));
+        assertTrue(events.get(2).getDuration().toMillis() >= 20);
+        assertThat(capture.toString(), not(containsString("#with")));
+    }
+
+    @Loggable
+    public static class SomeRecordedService {
+
+        public void withParams(String str) {
+        }
+
+        public void withThrow() {
+            throw new IllegalStateException("withThrow");
+        }
+
+        @Loggable(warnOver = 10, warnUnit = TimeUnit.MILLISECONDS)
+        public void withWarnOver() throws InterruptedException {
+            Thread.sleep(20);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeRecordedService someRecordedService() {
+            return new SomeRecordedService();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.index.enabled=true")
+public class LoggableIndexTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private SomeIndexedService someIndexedService;
+
+    @Autowired
+    private SomeClassIndexedService someClassIndexedService;
+
+    @Autowired
+    private SomePlainService somePlainService;
+
+    @Autowired
+    private SomeWarnInheritingService someWarnInheritingService;
+
+    @Autowired
+    private SomeErrorInheritingService someErrorInheritingService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void indexTest() {
+        LoggerIndex index = LoggerIndex.load(getClass().getClassLoader());
+        assertNotNull(index);
+        assertTrue(index.isCandidate(SomeIndexedService.class));
+        assertTrue(index.isCandidate(SomeClassIndexedService.class));
+        assertFalse(index.isCandidate(SomePlainService.class));
+    }
+
+    @Test
+    public void advisorTest() {
+        assertTrue(context.getBeansOfType(LoggerInterceptor.class).isEmpty());
+        assertTrue(AopUtils.isAopProxy(someIndexedService));
+        assertFalse(AopUtils.isAopProxy(somePlainService));
+    }
+
+    @Test
+    public void methodTest() {
+        someIndexedService.withParamsReturn("str", 10);
+        someIndexedService.notLogged();
+        assertThat(capture.toString(), containsString(
+                "INFO com.github.rozidan.springboot.logger.LoggableIndexTest$SomeIndexedService "
+                        + "- #withParamsReturn(['str', 10]): 10 in"));
+        assertThat(capture.toString(), not(containsString("#notLogged")));
+    }
+
+    @Test
+    public void classTest() {
+        someClassIndexedService.withParams("str");
+        someClassIndexedService.toString();
+        assertThat(capture.toString(), containsString(
+                "WARN com.github.rozidan.springboot.logger.LoggableIndexTest$SomeClassIndexedService "
+                        + "- #withParams(['str']): NULL in"));
+        assertThat(capture.toString(), not(containsString("#toString")));
+    }
+
+    @Test
+    public void inheritedMethodTest() {
+        someWarnInheritingService.inherited();
+        someErrorInheritingService.inherited();
+        assertThat(capture.toString(), containsString(
+                "WARN com.github.rozidan.springboot.logger.LoggableIndexTest$SomeBaseService - #inherited(): NULL in"));
+        assertThat(capture.toString(), containsString(
+                "ERROR com.github.rozidan.springboot.logger.LoggableIndexTest$SomeBaseService - #inherited(): NULL in"));
+    }
+
+    public static class SomeIndexedService {
+
+        @Loggable
+        public int withParamsReturn(String str, int num) {
+            return num;
+        }
+
+        public void notLogged() {
+        }
+    }
+
+    @Loggable(LogLevel.WARN)
+    public static class SomeClassIndexedService {
+
+        public void withParams(String str) {
+        }
+
+        @Override
+        public String toString() {
+            return "SomeClassIndexedService";
+        }
+    }
+
+    public static class SomePlainService {
+
+        public void notLogged() {
+        }
+    }
+
+    public static class SomeBaseService {
+
+        public void inherited() {
+        }
+    }
+
+    @Loggable(LogLevel.WARN)
+    public static class SomeWarnInheritingService extends SomeBaseService {
+    }
+
+    @Loggable(LogLevel.ERROR)
+    public static class SomeErrorInheritingService extends SomeBaseService {
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+
+        @Bean
+        public SomeIndexedService someIndexedService() {
+            return new SomeIndexedService();
+        }
+
+        @Bean
+        public SomeClassIndexedService someClassIndexedService() {
+            return new SomeClassIndexedService();
+        }
+
+        @Bean
+        public SomePlainService somePlainService() {
+            return new SomePlainService();
+        }
+
+        @Bean
+        public SomeWarnInheritingService someWarnInheritingService() {
+            return new SomeWarnInheritingService();
+        }
+
+        @Bean
+        public SomeErrorInheritingService someErrorInheritingService() {
+            return new SomeErrorInheritingService();
+        }
+    }
+}
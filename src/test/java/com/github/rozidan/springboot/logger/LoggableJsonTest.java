@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = {"logger.format=JSON", "logger.errors.deduplicate=true"})
+public class LoggableJsonTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeJsonService someJsonService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void returnedTest() {
+        someJsonService.withParamsReturn("a \"quoted\"\nstr", 10, new int[]{1, 2}, Arrays.asList(1.5, null));
+        assertTrue(Pattern.compile(Pattern.quote("{\"event\":\"returned\","
+                + "\"class\":\"com.github.rozidan.springboot.logger.LoggableJsonTest$SomeJsonService\","
+                + "\"method\":\"withParamsReturn\","
+                + "\"args\":[\"a \\\"quoted\\\"\\nstr\",10,[1,2],[1.5,null]],"
+                + "\"result\":{\"key\":10},\"durationNanos\":") + "\\d+"
+                + Pattern.quote(",\"outcome\":\"success\"}")).matcher(capture.toString()).find());
+    }
+
+    @Test
+    public void thrownTest() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                someJsonService.withThrow();
+            } catch (IllegalStateException ignore) {
+            }
+        }
+        String output = capture.toString();
+        assertThat(output, containsString("\"outcome\":\"java.lang.IllegalStateException\","
+                + "\"exception\":\"withThrow\"}"));
+        assertThat(output, containsString("java.lang.IllegalStateException: withThrow"));
+        assertThat(output, containsString("\"outcome\":\"java.lang.IllegalStateException\","
+                + "\"exception\":\"withThrow\",\"seen\":1}"));
+    }
+
+    @Test
+    public void limitTest() {
+        someJsonService.withLimit("abcdefghijklmnopqrstuvwxyz");
+        assertThat(capture.toString(), containsString("\"args\":[\"abcdefghi...\"]"));
+    }
+
+    public static class SomeJsonService {
+
+        @Loggable
+        public Map<String, Integer> withParamsReturn(String str, int num, int[] nums, Object list) {
+            return Collections.singletonMap("key", num);
+        }
+
+        @Loggable
+        public void withThrow() {
+            throw new IllegalStateException("withThrow");
+        }
+
+        @Loggable(maxChars = 10, skipResult = true)
+        public void withLimit(String str) {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeJsonService someJsonService() {
+            return new SomeJsonService();
+        }
+    }
+
+}
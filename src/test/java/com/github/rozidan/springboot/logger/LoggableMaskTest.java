@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = "logger.render.mask-patterns=*Token")
+public class LoggableMaskTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeMaskedService someMaskedService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void annotationTest() {
+        someMaskedService.withAnnotation("user", "secret");
+        assertThat(capture.toString(), containsString("#withAnnotation(['user', ****]): NULL in"));
+    }
+
+    @Test
+    public void nameTest() {
+        someMaskedService.withName("user", "secret", 3);
+        assertThat(capture.toString(), containsString("#withName(['user', ****, ****]): NULL in"));
+    }
+
+    @Test
+    public void patternTest() {
+        someMaskedService.withPattern("user", "secret");
+        assertThat(capture.toString(), containsString("#withPattern(['user', ****]): NULL in"));
+    }
+
+    @Test
+    public void mapTest() {
+        Map<String, Object> headers = new LinkedHashMap<>();
+        headers.put("accept", "json");
+        headers.put("authToken", "secret");
+        someMaskedService.withMap(headers);
+        assertThat(capture.toString(), containsString("#withMap([{'accept'='json', 'authToken'=****}]): NULL in"));
+        assertThat(capture.toString(), not(containsString("secret")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidIndexTest() throws NoSuchMethodException {
+        LoggerMask.of(SomeMaskedService.class.getMethod("withPattern", String.class, String.class),
+                new String[]{"99999999999"}, new String[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void outOfRangeIndexTest() throws NoSuchMethodException {
+        LoggerMask.of(SomeMaskedService.class.getMethod("withPattern", String.class, String.class),
+                new String[]{"5"}, new String[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidIndexOnStartupTest() throws NoSuchMethodException {
+        LoggerInterceptor interceptor = new LoggerInterceptor(new com.github.rozidan.springboot.logger.Logger());
+        new LoggerAdvisor(interceptor, null).getPointcut().getMethodMatcher().matches(
+                SomeInvalidService.class.getMethod("withPin", int.class), SomeInvalidService.class);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void outOfRangeIndexOnStartupTest() throws NoSuchMethodException {
+        LoggerInterceptor interceptor = new LoggerInterceptor(new com.github.rozidan.springboot.logger.Logger());
+        new LoggerAdvisor(interceptor, null).getPointcut().getMethodMatcher().matches(
+                SomeInvalidService.class.getMethod("withCode", int.class), SomeInvalidService.class);
+    }
+
+    @Test
+    public void unnamedTest() throws NoSuchMethodException {
+        // an interface method of the JDK, compiled without its parameter names
+        LoggerMask mask = LoggerMask.of(Comparator.class.getMethod("compare", Object.class, Object.class),
+                new String[]{"password"}, new String[0]);
+        assertThat(mask.param(0), is(true));
+        assertThat(mask.param(1), is(true));
+    }
+
+    @Loggable
+    public static class SomeMaskedService {
+
+        public void withAnnotation(String user, @Masked String password) {
+        }
+
+        @Loggable(mask = {"password", "2"})
+        public void withName(String user, String password, int pin) {
+        }
+
+        public void withPattern(String user, String refreshToken) {
+        }
+
+        public void withMap(Map<String, Object> headers) {
+        }
+    }
+
+    public static class SomeInvalidService {
+
+        @Loggable(mask = "99999999999")
+        public void withPin(int pin) {
+        }
+
+        @Loggable(mask = "1")
+        public void withCode(int code) {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeMaskedService someMaskedService() {
+            return new SomeMaskedService();
+        }
+    }
+}
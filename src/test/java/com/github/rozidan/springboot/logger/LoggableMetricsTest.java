@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class LoggableMetricsTest {
+
+    @Autowired
+    private SomeMetricsService someMetricsService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    public void successTimerTest() {
+        someMetricsService.withParamsReturn("str", 10);
+        someMetricsService.withParamsReturn("str", 20);
+        Timer timer = registry.find("logger.method")
+                .tag("class", SomeMetricsService.class.getName())
+                .tag("method", "withParamsReturn")
+                .tag("outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void exceptionTimerTest() {
+        try {
+            someMetricsService.withThrow();
+        } catch (Exception ignore) {
+        }
+        Timer timer = registry.find("logger.method")
+                .tag("method", "withThrow")
+                .tag("outcome", IllegalStateException.class.getName())
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void preRegisteredTest() {
+        try {
+            someMetricsService.withThrow();
+        } catch (Exception ignore) {
+        }
+        Timer timer = registry.find("logger.method")
+                .tag("method", "withThrow")
+                .tag("outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(0, timer.count());
+    }
+
+    public static class SomeMetricsService {
+
+        @Loggable
+        public int withParamsReturn(String str, int num) {
+            return num;
+        }
+
+        @Loggable
+        public void withThrow() {
+            throw new IllegalStateException("withThrow");
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public SomeMetricsService someMetricsService() {
+            return new SomeMetricsService();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.time.Duration;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = {
+        "logger.overrides[com.github.rozidan.springboot.logger.LoggableOverridesTest$SomeOverriddenService]"
+                + ".skip-args=true",
+        "logger.overrides[com.github.rozidan.springboot.logger.LoggableOverridesTest$SomeOverriddenService"
+                + ".withParams].skip-args=false"})
+public class LoggableOverridesTest {
+
+    private static final String SERVICE = SomeOverriddenService.class.getName();
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeOverriddenService someOverriddenService;
+
+    @Autowired
+    private LoggerEndpoint endpoint;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void propertiesTest() {
+        someOverriddenService.withParams("str");
+        someOverriddenService.withOtherParams("str");
+        assertThat(capture.toString(), containsString(SERVICE + " - #withParams(['str']): NULL in"));
+        assertThat(capture.toString(), containsString(SERVICE + " - #withOtherParams(..): NULL in"));
+    }
+
+    @Test
+    public void endpointTest() {
+        endpoint.configure(SERVICE + ".withOtherParams", LogLevel.WARN, true, false, null, null);
+        someOverriddenService.withOtherParams("str");
+        assertThat(capture.toString(), containsString("WARN " + SERVICE + " - #withOtherParams(['str']): entered"));
+        assertThat(capture.toString(), containsString("WARN " + SERVICE + " - #withOtherParams(['str']): NULL in"));
+        assertEquals(LogLevel.WARN, endpoint.override(SERVICE + ".withOtherParams").getLevel());
+        assertTrue(endpoint.overrides().containsKey(SERVICE));
+
+        endpoint.reset(SERVICE + ".withOtherParams");
+        capture.reset();
+        someOverriddenService.withOtherParams("str");
+        assertNull(endpoint.override(SERVICE + ".withOtherParams"));
+        assertThat(capture.toString(), containsString("INFO " + SERVICE + " - #withOtherParams(..): NULL in"));
+    }
+
+    @Test
+    public void warnOverTest() throws InterruptedException {
+        endpoint.configure(SERVICE + ".withSleep", null, null, null, null, Duration.ofMillis(10));
+        someOverriddenService.withSleep(50);
+        assertThat(capture.toString(), containsString("WARN " + SERVICE + " - #withSleep(..): NULL in"));
+
+        endpoint.configure(SERVICE + ".withSleep", null, null, null, null, Duration.ofMillis(-1));
+        capture.reset();
+        someOverriddenService.withSleep(50);
+        assertThat(capture.toString(), not(containsString("WARN")));
+    }
+
+    @Loggable
+    public static class SomeOverriddenService {
+
+        public void withParams(String str) {
+        }
+
+        public void withOtherParams(String str) {
+        }
+
+        public void withSleep(long millis) throws InterruptedException {
+            Thread.sleep(millis);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeOverriddenService someOverriddenService() {
+            return new SomeOverriddenService();
+        }
+    }
+}
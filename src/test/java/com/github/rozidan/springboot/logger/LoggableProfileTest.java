@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.lang.reflect.Method;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = {"logger.profile.enabled=true", "logger.profile.threshold=0ms"})
+public class LoggableProfileTest {
+
+    private static final String PREFIX = "LoggableProfileTest.";
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeRootService someRootService;
+
+    @Autowired
+    private SomeLeafService someLeafService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader())
+                .setLogLevel(org.slf4j.Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void treeTest() {
+        someRootService.handle();
+        assertTrue(Pattern.compile("#handle: call tree in \\S+: "
+                + PREFIX + "SomeRootService.handle \\S+ \\(self \\S+\\) \\{"
+                + PREFIX + "SomeChildService.find \\S+, " + PREFIX + "SomeChildService.find \\S+, "
+                + PREFIX + "SomeChildService.save \\S+ \\(self \\S+\\) \\{" + PREFIX + "SomeLeafService.flush \\S+}}\n")
+                .matcher(capture.toString()).find());
+    }
+
+    @Test
+    public void failedBeforeProceedTest() {
+        Logger logger = (Logger) LoggerFactory.getLogger(SomeLeafService.class);
+        FailingAppender appender = new FailingAppender();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            someLeafService.probe();
+        } catch (Error expected) {
+            // thrown while the entrance is logged, before the method proceeds
+        } finally {
+            logger.detachAppender(appender);
+        }
+        someRootService.handle();
+        assertThat(capture.toString(), containsString("#handle: call tree in"));
+    }
+
+    @Test
+    public void hottestTest() throws NoSuchMethodException {
+        LoggerPlan root = plan(SomeRootService.class.getMethod("handle"));
+        LoggerPlan find = plan(SomeChildService.class.getMethod("find"));
+        LoggerPlan flush = plan(SomeLeafService.class.getMethod("flush"));
+        LoggerCallTree tree = new LoggerCallTree(4, 2);
+        tree.enter(root, 0);
+        tree.enter(find, 1_000);
+        tree.exit(3_000);
+        tree.enter(find, 4_000);
+        tree.enter(flush, 4_500);
+        tree.exit(4_600);
+        tree.exit(6_000);
+        tree.enter(find, 7_000);
+        tree.exit(8_000);
+        tree.enter(flush, 9_000);
+        tree.exit(9_500);
+        // the nested flush is deeper than the max depth and the last one is beyond the max nodes
+        assertThat(tree.exit(10_500), equalTo(10_500L));
+        assertThat(tree.render(2), equalTo("hottest " + PREFIX + "SomeRootService.handle 5.5\u00b5s, "
+                + PREFIX + "SomeChildService.find 5\u00b5s (x3), ... (2 more)"));
+        tree.clear();
+    }
+
+    private static LoggerPlan plan(Method method) {
+        return new LoggerPlan(method, method.getDeclaringClass().getAnnotation(Loggable.class),
+                new LoggerProperties(), null);
+    }
+
+    @Loggable
+    public static class SomeRootService {
+
+        private final SomeChildService someChildService;
+
+        public SomeRootService(SomeChildService someChildService) {
+            this.someChildService = someChildService;
+        }
+
+        public void handle() {
+            someChildService.find();
+            someChildService.find();
+            someChildService.save();
+        }
+    }
+
+    @Loggable
+    public static class SomeChildService {
+
+        private final SomeLeafService someLeafService;
+
+        public SomeChildService(SomeLeafService someLeafService) {
+            this.someLeafService = someLeafService;
+        }
+
+        public void find() {
+        }
+
+        public void save() {
+            someLeafService.flush();
+        }
+    }
+
+    @Loggable
+    public static class SomeLeafService {
+
+        public void flush() {
+        }
+
+        @Loggable(entered = true)
+        public void probe() {
+        }
+    }
+
+    public static class FailingAppender extends AppenderBase<ILoggingEvent> {
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            throw new Error(event.getFormattedMessage());
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeLeafService someLeafService() {
+            return new SomeLeafService();
+        }
+
+        @Bean
+        public SomeChildService someChildService(SomeLeafService someLeafService) {
+            return new SomeChildService(someLeafService);
+        }
+
+        @Bean
+        public SomeRootService someRootService(SomeChildService someChildService) {
+            return new SomeRootService(someChildService);
+        }
+    }
+}
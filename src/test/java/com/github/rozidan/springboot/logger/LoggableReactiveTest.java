@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class LoggableReactiveTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeReactiveService someReactiveService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void futureTest() {
+        CompletableFuture<String> future = someReactiveService.withFuture();
+        assertThat(capture.toString(), not(containsString("#withFuture")));
+        future.complete("done");
+        assertThat(capture.toString(), containsString("#withFuture([]): 'done' in"));
+    }
+
+    @Test
+    public void futureErrorTest() {
+        CompletableFuture<String> future = someReactiveService.withFuture();
+        future.completeExceptionally(new IllegalStateException("withFuture"));
+        assertThat(capture.toString(), containsString(
+                "#withFuture([]): thrown java.lang.IllegalStateException(withFuture)"));
+    }
+
+    @Test
+    public void monoTest() {
+        Mono<String> mono = someReactiveService.withMono("str");
+        assertThat(capture.toString(), not(containsString("#withMono")));
+        mono.block();
+        assertThat(capture.toString(), containsString("#withMono(['str']): 'str' in"));
+    }
+
+    @Test
+    public void monoErrorTest() {
+        try {
+            someReactiveService.withMonoError().block();
+        } catch (IllegalStateException ignore) {
+        }
+        assertThat(capture.toString(), containsString(
+                "#withMonoError([]): thrown java.lang.IllegalStateException(withMonoError)"));
+    }
+
+    @Test
+    public void monoWarnOverTest() {
+        someReactiveService.withMonoWarnOver().block();
+        assertTrue(Pattern.compile("WARN .*#withMonoWarnOver\\(\\[]\\): 'late' in (2|3)\\d{2}(\\.\\d+)?ms \\(max 100ms\\)")
+                .matcher(capture.toString()).find());
+    }
+
+    @Test
+    public void fluxTest() {
+        someReactiveService.withFlux().collectList().block();
+        assertThat(capture.toString(), containsString("#withFlux([]): 3 elements in"));
+    }
+
+    @Test
+    public void connectableFluxTest() {
+        ConnectableFlux<Integer> flux = someReactiveService.withConnectableFlux();
+        assertThat(capture.toString(), containsString("#withConnectableFlux([]): "));
+        assertThat(flux.autoConnect().collectList().block().size(), is(3));
+    }
+
+    public static class SomeReactiveService {
+
+        @Loggable
+        public CompletableFuture<String> withFuture() {
+            return new CompletableFuture<>();
+        }
+
+        @Loggable
+        public Mono<String> withMono(String str) {
+            return Mono.just(str);
+        }
+
+        @Loggable
+        public Mono<String> withMonoError() {
+            return Mono.error(new IllegalStateException("withMonoError"));
+        }
+
+        @Loggable(warnOver = 100, warnUnit = TimeUnit.MILLISECONDS)
+        public Mono<String> withMonoWarnOver() {
+            return Mono.just("late").delayElement(Duration.ofMillis(200));
+        }
+
+        @Loggable
+        public Flux<Integer> withFlux() {
+            return Flux.just(1, 2, 3);
+        }
+
+        @Loggable
+        public ConnectableFlux<Integer> withConnectableFlux() {
+            return Flux.just(1, 2, 3).publish();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeReactiveService someReactiveService() {
+            return new SomeReactiveService();
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+
+@RunWith(SpringRunner.class)
+public class LoggableRendererTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeRenderedService someRenderedService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void typeTest() {
+        someRenderedService.withAccount(new Account(1));
+        assertThat(capture.toString(), containsString("#withAccount([Account#1]): NULL in"));
+    }
+
+    @Test
+    public void interfaceTest() {
+        someRenderedService.withSecret(new Password("1234"));
+        assertThat(capture.toString(), containsString("#withSecret([****]): NULL in"));
+    }
+
+    @Test
+    public void collectionTest() {
+        someRenderedService.withAccounts(Arrays.asList(new Account(1), new Account(2), new Account(3)));
+        assertThat(capture.toString(),
+                containsString("#withAccounts([size=3 [Account#1, Account#2, ...]]): NULL in"));
+    }
+
+    @Test
+    public void optionalTest() {
+        someRenderedService.withOptional(Optional.of(new Account(1)));
+        someRenderedService.withOptional(Optional.empty());
+        assertThat(capture.toString(), containsString("#withOptional([Optional[Account#1]]): NULL in"));
+        assertThat(capture.toString(), containsString("#withOptional([Optional.empty]): NULL in"));
+    }
+
+    @Test
+    public void bytesTest() {
+        someRenderedService.withBytes(new byte[1024], new ByteArrayInputStream(new byte[1]));
+        assertThat(capture.toString(),
+                containsString("#withBytes([byte[1024], ByteArrayInputStream]): NULL in"));
+    }
+
+    @Test
+    public void resultTest() {
+        someRenderedService.account(7);
+        assertThat(capture.toString(), containsString("#account([7]): Account#7 in"));
+    }
+
+    interface Secret {
+    }
+
+    @AllArgsConstructor
+    static class Password implements Secret {
+        private final String value;
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    @AllArgsConstructor
+    static class Account {
+        private final int id;
+    }
+
+    @Loggable
+    public static class SomeRenderedService {
+
+        public void withAccount(Account account) {
+        }
+
+        public void withSecret(Secret secret) {
+        }
+
+        public void withAccounts(List<Account> accounts) {
+        }
+
+        public void withOptional(Optional<Account> account) {
+        }
+
+        public void withBytes(byte[] bytes, InputStream stream) {
+        }
+
+        public Account account(int id) {
+            return new Account(id);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeRenderedService someRenderedService() {
+            return new SomeRenderedService();
+        }
+
+        @Bean
+        public ArgumentRenderer<Account> accountRenderer() {
+            return ArgumentRenderer.of(Account.class,
+                    (account, context) -> context.builder().append("Account#").append(account.id));
+        }
+
+        @Bean
+        public ArgumentRenderer<Secret> secretRenderer() {
+            return new ArgumentRenderer<Secret>() {
+                @Override
+                public void render(Secret secret, Context context) {
+                    context.builder().append("****");
+                }
+            };
+        }
+
+        @Bean
+        @SuppressWarnings("rawtypes")
+        public ArgumentRenderer<Collection> collectionRenderer() {
+            return ArgumentRenderers.collections(2);
+        }
+
+        @Bean
+        @SuppressWarnings("rawtypes")
+        public ArgumentRenderer<Optional> optionalRenderer() {
+            return ArgumentRenderers.optionals();
+        }
+
+        @Bean
+        public ArgumentRenderer<byte[]> bytesRenderer() {
+            return ArgumentRenderers.byteLength();
+        }
+
+        @Bean
+        public ArgumentRenderer<InputStream> streamRenderer() {
+            return ArgumentRenderers.inputStreams();
+        }
+    }
+}
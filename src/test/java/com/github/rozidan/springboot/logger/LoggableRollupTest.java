@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.aspectj.lang.JoinPoint;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.rollup.interval=200ms")
+public class LoggableRollupTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeRolledUpService someRolledUpService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void rollupTest() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            someRolledUpService.withRollup("str", i);
+        }
+        try {
+            someRolledUpService.withRollup("throw", 0);
+        } catch (IllegalStateException ignore) {
+        }
+        // the invocations may be summed up over more than one interval
+        assertTrue(awaitTotal(Pattern.compile("#withRollup: (\\d+) invocations in the last 200ms"), 6));
+        String output = capture.toString();
+        assertFalse(output.contains("#withRollup(['str', 0]): NULL in"));
+        assertThat(output, containsString("#withRollup(['throw', 0]): thrown java.lang.IllegalStateException(throw)"));
+        assertThat(output, containsString("errors {java.lang.IllegalStateException=1}"));
+        assertTrue(Pattern.compile("#withRollup: \\d+ invocations in the last 200ms, "
+                + "(errors \\{java\\.lang\\.IllegalStateException=1}, )?min [\\d.]+\\S?s, mean [\\d.]+\\S?s, "
+                + "p50 [\\d.]+\\S?s, p99 [\\d.]+\\S?s, max [\\d.]+\\S?s with \\(\\['.*', \\d]\\)").matcher(output).find());
+    }
+
+    @Test
+    public void optOutTest() throws NoSuchMethodException {
+        LoggerProperties properties = new LoggerProperties();
+        properties.getRollup().setEnabled(true);
+        Method inherited = SomeRolledUpService.class.getMethod("withInherited");
+        Method disabled = SomeRolledUpService.class.getMethod("withoutRollup");
+        assertTrue(new LoggerPlan(inherited, inherited.getAnnotation(Loggable.class), properties).isRollup());
+        assertFalse(new LoggerPlan(disabled, disabled.getAnnotation(Loggable.class), properties).isRollup());
+    }
+
+    @Test
+    public void concurrentDrainTest() throws InterruptedException {
+        LoggerRollup rollup = new LoggerRollup();
+        JoinPoint point = mock(JoinPoint.class);
+        int threads = 4;
+        int calls = 100_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> recorders = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread recorder = new Thread(() -> {
+                for (int call = 0; call < calls; call++) {
+                    rollup.record(call, point);
+                }
+                done.countDown();
+            });
+            recorders.add(recorder);
+            recorder.start();
+        }
+        long total = 0;
+        boolean finished;
+        do {
+            // drained once more after the last invocation
+            finished = done.getCount() == 0;
+            LoggerRollup.Summary summary = rollup.drain();
+            total += summary != null ? summary.getCalls() : 0;
+        } while (!finished);
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        // every invocation is summed up in exactly one interval
+        assertThat(total, is((long) threads * calls));
+    }
+
+    private boolean awaitTotal(Pattern pattern, long expected) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            long total = 0;
+            Matcher matcher = pattern.matcher(capture.toString());
+            while (matcher.find()) {
+                total += Long.parseLong(matcher.group(1));
+            }
+            if (total == expected) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    public static class SomeRolledUpService {
+
+        @Loggable(rollup = Loggable.Rollup.ENABLED, entered = true)
+        public void withRollup(String str, int num) {
+            if ("throw".equals(str)) {
+                throw new IllegalStateException(str);
+            }
+        }
+
+        @Loggable
+        public void withInherited() {
+        }
+
+        @Loggable(rollup = Loggable.Rollup.DISABLED)
+        public void withoutRollup() {
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeRolledUpService someRolledUpService() {
+            return new SomeRolledUpService();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.sampling.report-interval=200ms")
+public class LoggableSamplingTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeSampledService someSampledService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void maxPerSecondTest() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            someSampledService.withMaxPerSecond();
+        }
+        // the suppressed invocations may be reported over more than one interval
+        assertTrue(awaitTotal(Pattern.compile(
+                "#withMaxPerSecond: (\\d+) invocations suppressed in the last 200ms"), 3));
+        assertEquals(2, count(Pattern.compile("#withMaxPerSecond\\(\\[]\\): NULL in")));
+    }
+
+    @Test
+    public void sampledErrorTest() {
+        try {
+            someSampledService.withSampledThrow();
+        } catch (IllegalStateException ignore) {
+        }
+        assertThat(capture.toString(), containsString(
+                "#withSampledThrow([]): thrown java.lang.IllegalStateException(withSampledThrow)"));
+    }
+
+    private boolean awaitTotal(Pattern pattern, long expected) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            long total = 0;
+            Matcher matcher = pattern.matcher(capture.toString());
+            while (matcher.find()) {
+                total += Long.parseLong(matcher.group(1));
+            }
+            if (total == expected) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private int count(Pattern pattern) {
+        Matcher matcher = pattern.matcher(capture.toString());
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    public static class SomeSampledService {
+
+        @Loggable(maxPerSecond = 2)
+        public void withMaxPerSecond() {
+
+        }
+
+        @Loggable(sampleRate = 0)
+        public void withSampledThrow() {
+            throw new IllegalStateException("withSampledThrow");
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeSampledService someSampledService() {
+            return new SomeSampledService();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.warn.stack-depth=8")
+public class LoggableStackTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeStuckService someStuckService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void warnStackTest() throws InterruptedException {
+        Object lock = new Object();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread owner = new Thread(() -> {
+            synchronized (lock) {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        }, "lock-owner");
+        owner.start();
+        locked.await();
+        Thread caller = new Thread(() -> someStuckService.withWarnLocked(lock));
+        caller.start();
+        try {
+            // the lock is held until the warning is logged, whatever the load
+            assertTrue(awaitOutput(Pattern.compile(
+                    "#withWarnLocked\\(\\[.*]\\): in .* and still running \\(max 200ms\\), thread '.*' \\(id=\\d+\\) "
+                            + "BLOCKED on java\\.lang\\.Object@\\w+ owned by 'lock-owner' \\(id=\\d+\\).*"
+                            + "\tat .*LoggableStackTest\\$SomeStuckService\\.withWarnLocked.*"
+                            + "\t- blocked on java\\.lang\\.Object@\\w+",
+                    Pattern.DOTALL)));
+        } finally {
+            release.countDown();
+            owner.join();
+            caller.join();
+        }
+    }
+
+    private boolean awaitOutput(Pattern pattern) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            if (pattern.matcher(capture.toString()).find()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    public static class SomeStuckService {
+
+        @Loggable(warnOver = 200, warnUnit = TimeUnit.MILLISECONDS)
+        public int withWarnLocked(Object lock) {
+            synchronized (lock) {
+                return lock.hashCode();
+            }
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeStuckService someStuckService() {
+            return new SomeStuckService();
+        }
+    }
+}
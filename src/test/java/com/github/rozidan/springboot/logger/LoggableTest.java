@@ -17,8 +17,11 @@ package com.github.rozidan.springboot.logger;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
@@ -107,6 +110,30 @@ public class LoggableTest {
                         + "#withParamsArray([[1, 2, 3]]): NULL in"));
     }
 
+    @Test
+    public void paramsNestedArrayTest() {
+        someService.withParamsNestedArray(new Object[]{"str", null, new char[]{'a', 'b'}, new String[]{""}});
+        assertThat(capture.toString(), containsString(
+                "INFO com.github.rozidan.springboot.logger.LoggableTest$SomeService - "
+                        + "#withParamsNestedArray([['str', NULL, [a, b], ['']]]): NULL in"));
+    }
+
+    @Test
+    public void limitElementsTest() {
+        someService.withLimitElements(new int[]{1, 2, 3, 4, 5}, 50000);
+        assertThat(capture.toString(), containsString(
+                "INFO com.github.rozidan.springboot.logger.LoggableTest$SomeService - "
+                        + "#withLimitElements([[1, 2, 3, ... (2 more)], 50000]): [0, 1, 2, ... (49997 more)] in"));
+    }
+
+    @Test
+    public void limitCharsAndDepthTest() {
+        someService.withLimitCharsAndDepth(new Object[]{new Object[]{1}}, "abcdefghijklmnopqrstuvwxyz");
+        assertThat(capture.toString(), containsString(
+                "INFO com.github.rozidan.springboot.logger.LoggableTest$SomeService - "
+                        + "#withLimitCharsAndDepth([[[...]], 'abcdefghi...): NULL in"));
+    }
+
     @Test
     public void paramsReturnTest() {
         someService.withParamsReturn("str", 10);
@@ -242,7 +269,7 @@ public class LoggableTest {
         someService.withWarn2Sec();
         Pattern pattern = Pattern.compile(
                 "(WARN com\\.github\\.rozidan\\.springboot\\.logger\\.LoggableTest\\$SomeService "
-                        + "- #withWarn2Sec\\(\\[]\\): in .* and still running \\(max PT2S\\))",
+                        + "- #withWarn2Sec\\(\\[]\\): in .* and still running \\(max 2s\\))",
                 Pattern.DOTALL);
         assertTrue(pattern.matcher(capture.toString()).find());
     }
@@ -326,6 +353,21 @@ public class LoggableTest {
 
         }
 
+        @Loggable
+        public void withParamsNestedArray(Object[] items) {
+
+        }
+
+        @Loggable(maxElements = 3)
+        public List<Integer> withLimitElements(int[] nums, int size) {
+            return IntStream.range(0, size).boxed().collect(Collectors.toList());
+        }
+
+        @Loggable(maxChars = 20, maxDepth = 1)
+        public void withLimitCharsAndDepth(Object[] items, String str) {
+
+        }
+
         @Loggable
         public int withParamsReturn(String str, int num) {
             return num;
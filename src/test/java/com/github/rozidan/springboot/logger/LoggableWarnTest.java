@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "logger.warn.max-warnings=2")
+public class LoggableWarnTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeWarnService someWarnService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void warnRepeatedTest() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Thread caller = new Thread(() -> someWarnService.withWarnRepeated(release));
+        caller.start();
+        try {
+            // the execution is held until both warnings are logged, whatever the load
+            assertTrue(awaitOutput(Pattern.compile(
+                    "(#withWarnRepeated\\(\\[.*]\\): in .* and still running \\(max 200ms\\).*"
+                            + "#withWarnRepeated\\(\\[.*]\\): in .* and still running \\(max 200ms\\))",
+                    Pattern.DOTALL)));
+        } finally {
+            release.countDown();
+            caller.join();
+        }
+    }
+
+    private boolean awaitOutput(Pattern pattern) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            if (pattern.matcher(capture.toString()).find()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    public static class SomeWarnService {
+
+        @Loggable(warnOver = 200, warnUnit = TimeUnit.MILLISECONDS)
+        public void withWarnRepeated(CountDownLatch release) {
+            try {
+                release.await();
+            } catch (InterruptedException ignore) {
+            }
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger
+    public static class Application {
+        @Bean
+        public SomeWarnService someWarnService() {
+            return new SomeWarnService();
+        }
+    }
+}
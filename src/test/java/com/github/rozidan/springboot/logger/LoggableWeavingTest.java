@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.rule.OutputCapture;
+import org.springframework.context.annotation.AdviceMode;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Runs with the AspectJ load-time weaver agent, see the weavingTest task.
+ */
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class LoggableWeavingTest {
+
+    @Rule
+    public OutputCapture capture = new OutputCapture();
+
+    @Autowired
+    private SomeWovenService someWovenService;
+
+    @BeforeClass
+    public static void setErrorLogging() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(Logger.ROOT_LOGGER_NAME, LogLevel.INFO);
+    }
+
+    @Test
+    public void notProxiedTest() {
+        assertFalse(AopUtils.isAopProxy(someWovenService));
+        someWovenService.withParamsReturn("str", 10);
+        Matcher matcher = Pattern.compile("#withParamsReturn\\(\\['str', 10]\\): 10 in").matcher(capture.toString());
+        int logged = 0;
+        while (matcher.find()) {
+            logged++;
+        }
+        assertEquals(1, logged);
+    }
+
+    @Test
+    public void selfInvocationTest() {
+        someWovenService.withSelfInvocation();
+        assertThat(capture.toString(), containsString("#withPrivate(['self']): 'self' in"));
+    }
+
+    @Test
+    public void notBeanTest() {
+        new SomeWovenService().withParamsReturn("plain", 1);
+        assertThat(capture.toString(), containsString("#withParamsReturn(['plain', 1]): 1 in"));
+    }
+
+    public static class SomeWovenService {
+
+        @Loggable
+        public int withParamsReturn(String str, int num) {
+            return num;
+        }
+
+        public String withSelfInvocation() {
+            return withPrivate("self");
+        }
+
+        @Loggable
+        private String withPrivate(String str) {
+            return str;
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableLogger(mode = AdviceMode.ASPECTJ)
+    public static class Application {
+        @Bean
+        public SomeWovenService someWovenService() {
+            return new SomeWovenService();
+        }
+    }
+
+}
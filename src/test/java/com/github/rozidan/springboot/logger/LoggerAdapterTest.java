@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class LoggerAdapterTest {
+
+    private final LoggerArgsRenderer renderer = new LoggerArgsRenderer();
+
+    @Test
+    public void generatedTest() throws NoSuchMethodException {
+        LoggerPlan plan = plan(SomeService.class.getMethod("typed",
+                String.class, int.class, long.class, char.class, boolean.class, double.class, List.class));
+        assertThat(plan.getAdapter(), notNullValue());
+    }
+
+    @Test
+    public void renderTest() throws NoSuchMethodException {
+        LoggerPlan plan = plan(SomeService.class.getMethod("typed",
+                String.class, int.class, long.class, char.class, boolean.class, double.class, List.class));
+        Object[] args = {"name", 1, 2L, 'c', true, 1.5, Arrays.asList("a", null)};
+        assertThat(renderer.renderArgs(plan.getAdapter(), args, plan.getLimits()),
+                equalTo("['name', 1, 2, c, true, 1.5, [a, null]]"));
+        assertThat(renderer.renderArgs(plan.getAdapter(), args, plan.getLimits()),
+                equalTo(renderer.renderArgs(args, plan.getLimits())));
+
+        Object[] nulls = {null, 1, 2L, 'c', true, 1.5, null};
+        assertThat(renderer.renderArgs(plan.getAdapter(), nulls, plan.getLimits()),
+                equalTo(renderer.renderArgs(nulls, plan.getLimits())));
+    }
+
+    @Test
+    public void limitsTest() throws NoSuchMethodException {
+        LoggerPlan plan = plan(SomeService.class.getMethod("limited", String.class, String.class, int.class));
+        Object[] args = {"abcdefghij", "klmnop", 3};
+        assertThat(renderer.renderArgs(plan.getAdapter(), args, plan.getLimits()),
+                equalTo(renderer.renderArgs(args, plan.getLimits())));
+    }
+
+    @Test
+    public void inheritedTest() throws NoSuchMethodException {
+        LoggerPlan plan = plan(SomeService.class.getMethod("toString"));
+        assertThat(plan.getAdapter(), nullValue());
+    }
+
+    private static LoggerPlan plan(Method method) {
+        return new LoggerPlan(method, SomeService.class.getAnnotation(Loggable.class), new LoggerProperties());
+    }
+
+    @Loggable
+    public static class SomeService {
+
+        public void typed(String name, int i, long l, char c, boolean b, double d, List<String> list) {
+        }
+
+        @Loggable(maxChars = 12)
+        public void limited(String first, String second, int i) {
+        }
+    }
+}
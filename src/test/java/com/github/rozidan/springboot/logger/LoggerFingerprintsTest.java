@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LoggerFingerprintsTest {
+
+    @Test
+    public void leastRecentlySeenEvictedTest() {
+        LoggerProperties.Errors errors = new LoggerProperties.Errors();
+        errors.setMaxFingerprints(2);
+        LoggerFingerprints fingerprints = new LoggerFingerprints(errors, LoggerClock.SYSTEM);
+        Exception first = error("first");
+        Exception second = error("second");
+        assertThat(fingerprints.seen(first), is(0L));
+        assertThat(fingerprints.seen(second), is(0L));
+        assertThat(fingerprints.seen(first), is(1L));
+        assertThat(fingerprints.seen(error("third")), is(0L));
+        assertThat(fingerprints.size(), is(2));
+        assertThat(fingerprints.seen(first), is(2L));
+        assertThat(fingerprints.seen(second), is(0L));
+    }
+
+    @Test
+    public void windowTest() {
+        AtomicLong now = new AtomicLong();
+        LoggerProperties.Errors errors = new LoggerProperties.Errors();
+        errors.setWindow(Duration.ofSeconds(10));
+        LoggerFingerprints fingerprints = new LoggerFingerprints(errors, now::get);
+        Exception first = error("first");
+        assertThat(fingerprints.seen(first), is(0L));
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(fingerprints.seen(first), is(1L));
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(fingerprints.seen(first), is(0L));
+        assertThat(fingerprints.seen(first), is(1L));
+    }
+
+    @Test
+    public void stripedBoundTest() {
+        LoggerProperties.Errors errors = new LoggerProperties.Errors();
+        errors.setMaxFingerprints(1024);
+        LoggerFingerprints fingerprints = new LoggerFingerprints(errors, LoggerClock.SYSTEM);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(fingerprints.seen(error("method" + i)), is(0L));
+        }
+        assertTrue(fingerprints.size() <= 1024);
+        assertThat(fingerprints.seen(error("method9999")), is(1L));
+    }
+
+    private static Exception error(String method) {
+        Exception error = new IllegalStateException(method);
+        error.setStackTrace(new StackTraceElement[]{new StackTraceElement("Service", method, "Service.java", 1)});
+        return error;
+    }
+}
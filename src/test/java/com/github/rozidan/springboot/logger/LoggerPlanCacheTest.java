@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.Test;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LoggerPlanCacheTest {
+
+    private final LoggerOverrides overrides = new LoggerOverrides();
+    private final LoggerPlanCache plans = new LoggerPlanCache(new LoggerProperties(), null, overrides);
+
+    @Test
+    public void samePlanTest() throws NoSuchMethodException {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        assertThat(plans.get(joinPoint, loggable), sameInstance(plans.get(joinPoint, loggable)));
+        assertThat(plans.size(), is(1));
+    }
+
+    @Test
+    public void inheritedMethodTest() throws NoSuchMethodException {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        JoinPoint otherJoinPoint = joinPoint(SomeService.class.getMethod("find"), new OtherService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        Loggable other = OtherService.class.getAnnotation(Loggable.class);
+        LoggerPlan plan = plans.get(joinPoint, loggable);
+        LoggerPlan otherPlan = plans.get(otherJoinPoint, other);
+        assertThat(otherPlan, not(sameInstance(plan)));
+        assertThat(otherPlan.getLevel(), is(LogLevel.WARN));
+        assertThat(plans.get(joinPoint, loggable), sameInstance(plan));
+        assertThat(plans.get(otherJoinPoint, other), sameInstance(otherPlan));
+    }
+
+    @Test
+    public void reloadedAnnotationTest() throws NoSuchMethodException {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        // an equal annotation of another instance, as returned once the reflection data is reclaimed
+        Loggable reloaded = AnnotationUtils.synthesizeAnnotation(
+                AnnotationUtils.getAnnotationAttributes(loggable), Loggable.class, SomeService.class);
+        assertThat(reloaded, not(sameInstance(loggable)));
+        LoggerPlan plan = plans.get(joinPoint, loggable);
+        assertThat(plans.get(joinPoint, reloaded), sameInstance(plan));
+        assertThat(plans.size(), is(1));
+    }
+
+    @Test
+    public void levelChangeTest() throws NoSuchMethodException {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        LoggerPlan plan = plans.get(joinPoint, loggable);
+        LoggingSystem.get(ClassLoader.getSystemClassLoader())
+                .setLogLevel(SomeService.class.getName(), LogLevel.ERROR);
+        try {
+            assertThat(plans.get(joinPoint, loggable), sameInstance(plan));
+        } finally {
+            LoggingSystem.get(ClassLoader.getSystemClassLoader()).setLogLevel(SomeService.class.getName(), null);
+        }
+    }
+
+    @Test
+    public void overridesTest() throws NoSuchMethodException {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        LoggerPlan plan = plans.get(joinPoint, loggable);
+        overrides.put(SomeService.class.getName(), new LoggerOverrides.Entry(LogLevel.DEBUG, null, null, null, null));
+        LoggerPlan overridden = plans.get(joinPoint, loggable);
+        assertThat(overridden, not(sameInstance(plan)));
+        assertThat(overridden.getLevel(), is(LogLevel.DEBUG));
+        assertThat(plans.get(joinPoint, loggable), sameInstance(overridden));
+    }
+
+    @Test
+    public void unrelatedOverridesTest() throws NoSuchMethodException {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        overrides.put(SomeService.class.getName(), new LoggerOverrides.Entry(LogLevel.DEBUG, null, null, null, null));
+        LoggerPlan plan = plans.get(joinPoint, loggable);
+        overrides.put("com.example.Other", new LoggerOverrides.Entry(LogLevel.TRACE, null, null, null, null));
+        overrides.put(SomeService.class.getName(), new LoggerOverrides.Entry(LogLevel.DEBUG, null, null, null, null));
+        assertThat(plans.get(joinPoint, loggable), sameInstance(plan));
+        assertThat(plan.getOverrides(), sameInstance(overrides.current()));
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        JoinPoint joinPoint = joinPoint(SomeService.class.getMethod("find"), new SomeService());
+        Loggable loggable = SomeService.class.getAnnotation(Loggable.class);
+        Set<LoggerPlan> built = ConcurrentHashMap.newKeySet();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(() -> {
+                    try {
+                        ready.await();
+                        built.add(plans.get(joinPoint, loggable));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            ready.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+        assertThat(built.size(), is(1));
+        assertThat(plans.size(), is(1));
+    }
+
+    private static JoinPoint joinPoint(Method method, Object target) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        JoinPoint joinPoint = mock(JoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(target);
+        return joinPoint;
+    }
+
+    @Loggable
+    public static class SomeService {
+
+        public void find() {
+        }
+    }
+
+    @Loggable(LogLevel.WARN)
+    public static class OtherService extends SomeService {
+    }
+}
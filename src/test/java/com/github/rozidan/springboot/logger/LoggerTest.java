@@ -204,6 +204,13 @@ public class LoggerTest {
         assertFalse(logger.isEnabled(LogLevel.TRACE, "logger name"));
     }
 
+    @Test
+    public void isLogOffDisabled() {
+        LoggingSystem.get(ClassLoader.getSystemClassLoader())
+                .setLogLevel(org.slf4j.Logger.ROOT_LOGGER_NAME, LogLevel.TRACE);
+        assertFalse(logger.isEnabled(LogLevel.OFF, "logger name"));
+    }
+
     @Configuration
     @Import(Logger.class)
     public static class Application {
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2019 Idan Roz the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.rozidan.springboot.logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoggerWarnTimerTest {
+
+    @Test
+    public void failedTaskTest() throws InterruptedException {
+        LoggerWarnTimer timer = new LoggerWarnTimer(Thread::new, 1, TimeUnit.MILLISECONDS, 64);
+        try {
+            CountDownLatch ran = new CountDownLatch(1);
+            timer.schedule(timeout -> {
+                throw new AssertionError("task failure");
+            }, 1, TimeUnit.MILLISECONDS);
+            timer.schedule(timeout -> ran.countDown(), 20, TimeUnit.MILLISECONDS);
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void hugeDelayTest() throws InterruptedException {
+        LoggerWarnTimer timer = new LoggerWarnTimer(Thread::new, 1, TimeUnit.MILLISECONDS, 64);
+        try {
+            AtomicBoolean expired = new AtomicBoolean();
+            CountDownLatch ran = new CountDownLatch(1);
+            timer.schedule(timeout -> expired.set(true), Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            timer.schedule(timeout -> expired.set(true), Long.MAX_VALUE, TimeUnit.DAYS);
+            timer.schedule(timeout -> ran.countDown(), 20, TimeUnit.MILLISECONDS);
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertFalse(expired.get());
+        } finally {
+            timer.stop();
+        }
+    }
+}